@@ -1,6 +1,15 @@
 package queue;
 
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /*
  * Model: a[1], a[2], a[3], ... a[n]
@@ -13,8 +22,17 @@ import java.util.Objects;
  * Let: remove(i): n' = n - 1 && immutable(i - 1) && forall j=i..n' a'[j] = a[j + 1]
  */
 
-public abstract class AbstractQueue implements Queue {
+public abstract class AbstractQueue implements Queue, Iterable<Object> {
     protected int size;
+    // Number of structural modifications, checked by iterators and spliterators to fail fast
+    protected int modCount;
+
+    // Invariant: index == null || forall e: index.get(e).value = |occurrences(e)| > 0
+    private Map<Object, Counter> index;
+
+    private static final class Counter {
+        private int value;
+    }
 
     /*
      * Precondition: true
@@ -40,6 +58,8 @@ public abstract class AbstractQueue implements Queue {
 
         enqueueImpl(element);
         size++;
+        modCount++;
+        indexAdd(element);
     }
 
     /*
@@ -92,6 +112,8 @@ public abstract class AbstractQueue implements Queue {
 
         final Object result = dequeueImpl();
         size--;
+        modCount++;
+        indexRemove(result);
 
         return result;
     }
@@ -142,6 +164,10 @@ public abstract class AbstractQueue implements Queue {
         clearImpl();
 
         size = 0;
+        modCount++;
+        if (index != null) {
+            index.clear();
+        }
     }
 
     /*
@@ -151,6 +177,157 @@ public abstract class AbstractQueue implements Queue {
      */
     protected abstract void clearImpl();
 
+    /*
+     * Preconditions:
+     * - src != null
+     * - 0 <= off && 0 <= len && off + len <= src.length
+     * - forall i=off..off+len-1: src[i] != null
+     *
+     * Postconditions:
+     * - n' = n + len
+     * - forall i=1..len: a'[n + i] = src[off + i - 1]
+     * - immutable(n)
+     */
+    public void enqueueAll(Object[] src, int off, int len) {
+        Objects.checkFromIndexSize(off, len, src.length);
+        for (int i = off; i < off + len; i++) {
+            Objects.requireNonNull(src[i]);
+        }
+
+        enqueueAllImpl(src, off, len);
+        size += len;
+        modCount++;
+        for (int i = off; i < off + len; i++) {
+            indexAdd(src[i]);
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= off && 0 <= len && off + len <= src.length
+     * - forall i=off..off+len-1: src[i] != null
+     *
+     * Postconditions:
+     * - forall i=1..len: a'[n + i] = src[off + i - 1]
+     * - immutable(n)
+     * - size' = size
+     */
+    protected void enqueueAllImpl(Object[] src, int off, int len) {
+        // enqueueImpl appends after the first size elements, so size has to follow each call
+        final int initialSize = size;
+        for (int i = off; i < off + len; i++) {
+            enqueueImpl(src[i]);
+            size++;
+        }
+        size = initialSize;
+    }
+
+    /*
+     * Preconditions:
+     * - dst != null
+     * - max >= 0
+     * - 0 <= off && off + min(n, max) <= dst.length
+     *
+     * Postconditions:
+     * - R = min(n, max)
+     * - forall i=1..R: dst'[off + i - 1] = a[i]
+     * - n' = n - R
+     * - forall i=1..n' a'[i] = a[i + R]
+     */
+    public int dequeueInto(Object[] dst, int off, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max = " + max);
+        }
+        final int count = Math.min(size, max);
+        Objects.checkFromIndexSize(off, count, dst.length);
+
+        dequeueIntoImpl(dst, off, count);
+        size -= count;
+        modCount++;
+        for (int i = off; i < off + count; i++) {
+            indexRemove(dst[i]);
+        }
+
+        return count;
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= count <= n
+     * - 0 <= off && off + count <= dst.length
+     *
+     * Postconditions:
+     * - forall i=1..count: dst'[off + i - 1] = a[i]
+     * - forall i=1..n-count a'[i] = a[i + count]
+     * - size' = size
+     */
+    protected void dequeueIntoImpl(Object[] dst, int off, int count) {
+        final int initialSize = size;
+        for (int i = 0; i < count; i++) {
+            dst[off + i] = dequeueImpl();
+            size--;
+        }
+        size = initialSize;
+    }
+
+    /*
+     * Preconditions:
+     * - other != null
+     * - other != this
+     * - max >= 0
+     *
+     * Postconditions:
+     * - R = the number of elements other accepted, R <= min(n, max)
+     * - a[1..R] are enqueued to other in order, the move stops at the first element other rejects as full
+     * - n' = n - R
+     * - forall i=1..n' a'[i] = a[i + R]
+     */
+    public int drainTo(Queue other, int max) {
+        Objects.requireNonNull(other);
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot drain a queue to itself");
+        }
+        if (max < 0) {
+            throw new IllegalArgumentException("max = " + max);
+        }
+
+        final int count = Math.min(size, max);
+        // The bulk overrides bypass the per-element hooks, so indexed queues move elements one by one
+        final boolean indexed = index != null || other instanceof AbstractQueue && ((AbstractQueue) other).index != null;
+        if (!indexed && drainToImpl(other, count)) {
+            size -= count;
+            modCount++;
+            return count;
+        }
+
+        int moved = 0;
+        while (moved < count) {
+            // Enqueued before it is dequeued, so an element rejected by a bounded other is not lost
+            try {
+                other.enqueue(element());
+            } catch (final IllegalStateException e) {
+                break;
+            }
+            dequeue();
+            moved++;
+        }
+        return moved;
+    }
+
+    /*
+     * Preconditions:
+     * - other != null && other != this
+     * - 0 <= count <= n
+     *
+     * Postconditions:
+     * - if R = true: a[1..count] are enqueued to other in order, forall i=1..n-count a'[i] = a[i + count]
+     * - if R = false: other cannot be filled in bulk, totally_immutable
+     * - size' = size
+     */
+    protected boolean drainToImpl(Queue other, int count) {
+        return false;
+    }
+
     protected abstract class AbstractQueueIterator {
         // Model: cursor
         // Invariant: cursor == null || 1 <= cursor <= n + 1
@@ -198,8 +375,10 @@ public abstract class AbstractQueue implements Queue {
          * - remove(cursor)
          */
         public void remove() {
+            indexRemove(get());
             removeImpl();
             size--;
+            modCount++;
         }
 
         /*
@@ -223,6 +402,104 @@ public abstract class AbstractQueue implements Queue {
      */
     protected abstract AbstractQueueIterator begin();
 
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R iterates a[1], ..., a[n] in order
+     * - R.remove() removes the element returned last
+     * - R throws ConcurrentModificationException once the queue is modified other than through R
+     * - totally_immutable
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new QueueIterator();
+    }
+
+    private class QueueIterator implements Iterator<Object> {
+        private final AbstractQueueIterator cursor = begin();
+        private int expectedModCount = modCount;
+        // Number of elements not returned yet
+        private int remaining = size;
+        // Whether cursor stays at the element returned last, which next has to step over
+        private boolean returned;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Object next() {
+            checkForComodification();
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+
+            if (returned) {
+                cursor.next();
+            }
+            returned = true;
+            remaining--;
+            return cursor.get();
+        }
+
+        @Override
+        public void remove() {
+            if (!returned) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            // The cursor stays in place and points at the following element
+            cursor.remove();
+            returned = false;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R is an ORDERED, SIZED spliterator over a[1], ..., a[n]
+     * - R is fail-fast, as iterator()
+     * - totally_immutable
+     */
+    @Override
+    public Spliterator<Object> spliterator() {
+        // Splits by copying batches out of the iterator; ArrayQueue splits its ring in place
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = sequential stream of a[1], ..., a[n]
+     * - totally_immutable
+     */
+    public Stream<Object> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = parallel stream of a[1], ..., a[n]
+     * - totally_immutable
+     */
+    public Stream<Object> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /*
      * Preconditions:
      * - true
@@ -250,6 +527,9 @@ public abstract class AbstractQueue implements Queue {
      * - totally_immutable
      */
     public boolean contains(Object element) {
+        if (index != null) {
+            return index.containsKey(element);
+        }
         return !find(element).isEnd();
     }
 
@@ -268,6 +548,11 @@ public abstract class AbstractQueue implements Queue {
      * - totally_immutable
      */
     public boolean removeFirstOccurrence(Object element) {
+        // The index only rules out absent elements, a present one is found by the scan below
+        if (index != null && !index.containsKey(element)) {
+            return false;
+        }
+
         AbstractQueueIterator iterator = find(element);
 
         if (!iterator.isEnd()) {
@@ -277,4 +562,87 @@ public abstract class AbstractQueue implements Queue {
             return false;
         }
     }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - totally_immutable
+     * - contains is O(1), removeFirstOccurrence of an absent element is O(1)
+     * - removeFirstOccurrence of a present element stays O(n): the index keeps occurrence counts, not positions,
+     *   so the element is still found by a scan and removed by the storage
+     * - enqueue and dequeue stay O(1) amortized, with one hash update each
+     */
+    public void enableIndex() {
+        if (index != null) {
+            return;
+        }
+
+        index = new HashMap<>();
+        if (size > 0) {
+            for (AbstractQueueIterator iterator = begin(); !iterator.isEnd(); iterator.next()) {
+                indexAdd(iterator.get());
+            }
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: totally_immutable
+     */
+    public void disableIndex() {
+        index = null;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = true if the index is enabled, false otherwise
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = approximate heap size of the index in bytes, 0 if it is disabled
+     */
+    public long indexMemoryOverhead() {
+        if (index == null) {
+            return 0;
+        }
+
+        // HashMap node (32 bytes) and Counter (16 bytes) per distinct element,
+        // plus a 4-byte table slot per bucket at the default load factor of 0.75
+        final long entries = index.size();
+        final long buckets = Math.max(16, Long.highestOneBit(Math.max(1, entries * 4 / 3)) << 1);
+        return entries * (32 + 16) + buckets * 4 + 48;
+    }
+
+    /*
+     * Precondition: element != null
+     *
+     * Postcondition: index, if enabled, counts one more occurrence of element
+     */
+    protected final void indexAdd(Object element) {
+        if (index != null) {
+            index.computeIfAbsent(element, e -> new Counter()).value++;
+        }
+    }
+
+    /*
+     * Precondition: element is in a before the removal
+     *
+     * Postcondition: index, if enabled, counts one less occurrence of element
+     */
+    protected final void indexRemove(Object element) {
+        if (index != null) {
+            final Counter counter = index.get(element);
+            if (--counter.value == 0) {
+                index.remove(element);
+            }
+        }
+    }
 }
@@ -11,7 +11,11 @@ package queue;
  * Let: remove(i): n' = n - 1 && immutable(i - 1) && forall j=i..n' a'[j] = a[j + 1]
  */
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class ArrayQueue extends AbstractQueue {
     private Object[] elements;
@@ -27,7 +31,21 @@ public class ArrayQueue extends AbstractQueue {
      * Postcondition: n = 0
      */
     public ArrayQueue() {
-        elements = new Object[2];
+        this(2);
+    }
+
+    /*
+     * Precondition: capacity > 0
+     *
+     * Postconditions:
+     * - n = 0
+     * - no reallocation happens while n <= capacity
+     */
+    public ArrayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity = " + capacity);
+        }
+        elements = new Object[capacity];
         head = 0;
     }
 
@@ -105,6 +123,86 @@ public class ArrayQueue extends AbstractQueue {
         }
     }
 
+    /*
+     * Preconditions:
+     * - 0 <= off && 0 <= len && off + len <= src.length
+     * - forall i=off..off+len-1: src[i] != null
+     *
+     * Postconditions:
+     * - forall i=1..len: a'[n + i] = src[off + i - 1]
+     * - immutable(n)
+     * - size' = size
+     */
+    @Override
+    protected void enqueueAllImpl(Object[] src, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        ensureCapacity(size + len);
+        // At most two copies: up to the end of the ring, then from its start
+        simpleToCircularArraycopy(src, off, elements, arrayIndex(size), len);
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= count <= n
+     * - 0 <= off && off + count <= dst.length
+     *
+     * Postconditions:
+     * - forall i=1..count: dst'[off + i - 1] = a[i]
+     * - forall i=1..n-count a'[i] = a[i + count]
+     * - size' = size
+     */
+    @Override
+    protected void dequeueIntoImpl(Object[] dst, int off, int count) {
+        final int first = Math.min(count, elements.length - head);
+        System.arraycopy(elements, head, dst, off, first);
+        System.arraycopy(elements, 0, dst, off + first, count - first);
+        release(count);
+    }
+
+    /*
+     * Preconditions:
+     * - other != null && other != this
+     * - 0 <= count <= n
+     *
+     * Postconditions:
+     * - if R = true: a[1..count] are enqueued to other in order, forall i=1..n-count a'[i] = a[i + count]
+     * - if R = false: other cannot be filled in bulk, totally_immutable
+     * - size' = size
+     */
+    @Override
+    protected boolean drainToImpl(Queue other, int count) {
+        if (!(other instanceof ArrayQueue)) {
+            return false;
+        }
+        if (count == 0) {
+            return true;
+        }
+
+        final ArrayQueue target = (ArrayQueue) other;
+        target.ensureCapacity(target.size + count);
+        circularArraycopy(elements, head, target.elements, target.arrayIndex(target.size), count);
+        target.size += count;
+        target.modCount++;
+        release(count);
+        return true;
+    }
+
+    /*
+     * Precondition: 0 <= count <= n
+     *
+     * Postconditions:
+     * - the slots of a[1..count] are cleared
+     * - head' = index of a[count + 1]
+     */
+    private void release(int count) {
+        final int first = Math.min(count, elements.length - head);
+        Arrays.fill(elements, head, head + first, null);
+        Arrays.fill(elements, 0, count - first, null);
+        head = arrayIndex(count);
+    }
+
     /*
      * Preconditions:
      * - element != null
@@ -121,6 +219,8 @@ public class ArrayQueue extends AbstractQueue {
         head = (head - 1 + elements.length) % elements.length;
         elements[head] = element;
         size++;
+        modCount++;
+        indexAdd(element);
     }
 
     /*
@@ -154,6 +254,8 @@ public class ArrayQueue extends AbstractQueue {
         final Object result = elements[last];
         elements[last] = null;
         size--;
+        modCount++;
+        indexRemove(result);
 
         return result;
     }
@@ -226,6 +328,97 @@ public class ArrayQueue extends AbstractQueue {
         }
     }
 
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R is an ORDERED, SIZED, SUBSIZED spliterator over a[1], ..., a[n]
+     * - R.trySplit() is O(1), it halves the index range without copying
+     * - R is fail-fast, as iterator()
+     * - totally_immutable
+     */
+    @Override
+    public Spliterator<Object> spliterator() {
+        return new ArrayQueueSpliterator(elements, head, 0, size, modCount);
+    }
+
+    private final class ArrayQueueSpliterator implements Spliterator<Object> {
+        // Invariant: the remaining elements are a[origin + 1..fence] = ring[(ringHead + origin..fence-1) % ring.length]
+        // The ring is captured, so a reallocation is detected through modCount instead of reading a new array
+        private final Object[] ring;
+        private final int ringHead;
+        private final int expectedModCount;
+        private int origin;
+        private final int fence;
+
+        private ArrayQueueSpliterator(Object[] ring, int ringHead, int origin, int fence, int expectedModCount) {
+            this.ring = ring;
+            this.ringHead = ringHead;
+            this.origin = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<Object> trySplit() {
+            final int middle = (origin + fence) >>> 1;
+            if (middle <= origin) {
+                return null;
+            }
+
+            final Spliterator<Object> prefix = new ArrayQueueSpliterator(ring, ringHead, origin, middle, expectedModCount);
+            origin = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Object> action) {
+            Objects.requireNonNull(action);
+            if (origin == fence) {
+                return false;
+            }
+
+            final Object element = ring[(ringHead + origin++) % ring.length];
+            checkForComodification();
+            action.accept(element);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Object> action) {
+            Objects.requireNonNull(action);
+
+            // Walks the two contiguous parts of the ring, checking modCount once at the end as ArrayList does
+            final int start = (ringHead + origin) % ring.length;
+            final int count = fence - origin;
+            final int first = Math.min(count, ring.length - start);
+            for (int i = start; i < start + first; i++) {
+                action.accept(ring[i]);
+            }
+            for (int i = 0; i < count - first; i++) {
+                action.accept(ring[i]);
+            }
+            origin = fence;
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
     /*
      * Precondition: n > 0
      *
@@ -0,0 +1,433 @@
+package queue;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: 0 <= n <= capacity && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ *
+ * All operations are atomic with respect to each other.
+ * Waiting is done on ReentrantLock conditions, never in synchronized blocks,
+ * so a blocked virtual thread unmounts from its carrier instead of pinning it.
+ */
+
+public class BoundedBlockingQueue implements Queue {
+    // Breaks the tie when two queues have the same identity hash code in drainTo
+    private static final ReentrantLock TIE_LOCK = new ReentrantLock();
+
+    private final ArrayQueue elements;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /*
+     * Precondition: capacity > 0
+     *
+     * Postcondition: n = 0
+     */
+    public BoundedBlockingQueue(int capacity) {
+        this.elements = new ArrayQueue(capacity);
+        this.capacity = capacity;
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     *
+     * Postconditions:
+     * - waits until n < capacity
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    public void put(Object element) throws InterruptedException {
+        Objects.requireNonNull(element);
+
+        lock.lockInterruptibly();
+        try {
+            while (elements.size() == capacity) {
+                notFull.await();
+            }
+            insert(element);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     *
+     * Postconditions:
+     * if n < capacity within timeout:
+     * - R = true
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     *
+     * else:
+     * - R = false
+     * - totally_immutable
+     */
+    public boolean offer(Object element, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(element);
+
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (elements.size() == capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     *
+     * Postconditions:
+     * if n < capacity:
+     * - R = true
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     *
+     * else:
+     * - R = false
+     * - totally_immutable
+     */
+    public boolean offer(Object element) {
+        Objects.requireNonNull(element);
+
+        lock.lock();
+        try {
+            if (elements.size() == capacity) {
+                return false;
+            }
+            insert(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - waits until n > 0
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    public Object take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (elements.isEmpty()) {
+                notEmpty.await();
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * if n > 0 within timeout:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (elements.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * if n > 0:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object poll() {
+        lock.lock();
+        try {
+            return elements.isEmpty() ? null : extract();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - target != null
+     * - target != this
+     * - maxElements >= 0
+     * - target is a BoundedBlockingQueue, or its enqueue neither blocks nor takes locks
+     *   (true for every other Queue in this package)
+     *
+     * Postconditions:
+     * - R = the number of elements target accepted, R <= min(n, maxElements)
+     * - a[1..R] are enqueued to target in order, the move stops at the first element target rejects as full
+     * - n' = n - R
+     * - forall i=1..n' a'[i] = a[i + R]
+     */
+    public int drainTo(Queue target, int maxElements) {
+        Objects.requireNonNull(target);
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot drain a queue to itself");
+        }
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("maxElements = " + maxElements);
+        }
+
+        if (target instanceof BoundedBlockingQueue) {
+            return drainTo((BoundedBlockingQueue) target, maxElements);
+        }
+
+        lock.lock();
+        try {
+            final int count = Math.min(elements.size(), maxElements);
+            int moved = 0;
+            while (moved < count) {
+                // Offered before it is dequeued, so an element rejected by a bounded target is not lost
+                try {
+                    target.enqueue(elements.element());
+                } catch (final IllegalStateException e) {
+                    break;
+                }
+                elements.dequeue();
+                moved++;
+            }
+            if (moved > 0) {
+                notFull.signalAll();
+            }
+            return moved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Preconditions: target != this, maxElements >= 0
+     *
+     * Postconditions:
+     * - R = min(n, maxElements, target.capacity - target.n)
+     * - a[1..R] are enqueued to target in order
+     * - n' = n - R
+     * - forall i=1..n' a'[i] = a[i + R]
+     */
+    private int drainTo(BoundedBlockingQueue target, int maxElements) {
+        // Both locks are taken in a global order, so a.drainTo(b) racing b.drainTo(a) cannot deadlock
+        final int thisHash = System.identityHashCode(this);
+        final int targetHash = System.identityHashCode(target);
+        final ReentrantLock first = thisHash < targetHash ? lock : target.lock;
+        final ReentrantLock second = thisHash < targetHash ? target.lock : lock;
+
+        final boolean tie = thisHash == targetHash;
+        if (tie) {
+            TIE_LOCK.lock();
+        }
+        first.lock();
+        second.lock();
+        try {
+            final int count = Math.min(Math.min(elements.size(), maxElements), target.capacity - target.elements.size());
+            for (int i = 0; i < count; i++) {
+                target.insert(elements.dequeue());
+            }
+            if (count > 0) {
+                notFull.signalAll();
+            }
+            return count;
+        } finally {
+            second.unlock();
+            first.unlock();
+            if (tie) {
+                TIE_LOCK.unlock();
+            }
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - target != null
+     * - target != this
+     * - as drainTo(target, maxElements)
+     *
+     * Postconditions:
+     * - as drainTo(target, Integer.MAX_VALUE)
+     */
+    public int drainTo(Queue target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Precondition: lock is held, n < capacity
+     *
+     * Postcondition: element is enqueued, one waiting consumer is woken up
+     */
+    private void insert(Object element) {
+        elements.enqueue(element);
+        notEmpty.signal();
+    }
+
+    /*
+     * Precondition: lock is held, n > 0
+     *
+     * Postcondition: R = dequeued a[1], one waiting producer is woken up
+     */
+    private Object extract() {
+        final Object result = elements.dequeue();
+        notFull.signal();
+        return result;
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - n < capacity
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    @Override
+    public void enqueue(Object element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full, capacity = " + capacity);
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postcondition:
+     * - R = a[1]
+     * - totally_immutable
+     */
+    @Override
+    public Object element() {
+        lock.lock();
+        try {
+            return elements.element();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    @Override
+    public Object dequeue() {
+        final Object result = poll();
+        assert result != null : "Queue is empty";
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n
+     * - totally_immutable
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return elements.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            // Dequeues instead of ArrayQueue.clear, which would drop the preallocated storage
+            while (!elements.isEmpty()) {
+                elements.dequeue();
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,73 @@
+package queue;
+
+public class BoundedBlockingQueueTest {
+    private static BoundedBlockingQueue filled(int capacity, int count) {
+        final BoundedBlockingQueue queue = new BoundedBlockingQueue(capacity);
+        for (int i = 0; i < count; i++) {
+            queue.enqueue(i);
+        }
+        return queue;
+    }
+
+    private static void testDrainToBounded() {
+        final BoundedBlockingQueue source = filled(4, 4);
+        final BoundedBlockingQueue target = new BoundedBlockingQueue(2);
+
+        final int moved = source.drainTo(target);
+        if (moved != 2 || source.size() + target.size() != 4) {
+            System.out.println("drainTo to a smaller queue moved " + moved + ", "
+                    + (source.size() + target.size()) + " elements are left of 4");
+        }
+        if (!target.dequeue().equals(0) || !target.dequeue().equals(1) || !source.dequeue().equals(2)) {
+            System.out.println("drainTo to a smaller queue must keep the order");
+        }
+    }
+
+    private static void testDrainToLockFree() {
+        final BoundedBlockingQueue source = filled(4, 4);
+        final MpmcArrayQueue target = new MpmcArrayQueue(2);
+
+        final int moved = source.drainTo(target);
+        if (moved != 2 || source.size() != 2 || target.size() != 2) {
+            System.out.println("drainTo to a full MpmcArrayQueue must stop at the first rejected element, moved " + moved);
+        }
+        if (!source.dequeue().equals(2) || !source.dequeue().equals(3)) {
+            System.out.println("drainTo to a full MpmcArrayQueue must not lose the rejected element");
+        }
+    }
+
+    private static void testCrossDrain() throws InterruptedException {
+        final BoundedBlockingQueue a = filled(8, 8);
+        final BoundedBlockingQueue b = new BoundedBlockingQueue(8);
+        final int rounds = 20_000;
+
+        final Thread forward = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                a.drainTo(b, 3);
+            }
+        });
+        final Thread backward = new Thread(() -> {
+            for (int i = 0; i < rounds; i++) {
+                b.drainTo(a, 3);
+            }
+        });
+        forward.start();
+        backward.start();
+        forward.join(10_000);
+        backward.join(10_000);
+
+        if (forward.isAlive() || backward.isAlive()) {
+            System.out.println("a.drainTo(b) racing b.drainTo(a) deadlocked");
+            forward.interrupt();
+            backward.interrupt();
+        } else if (a.size() + b.size() != 8) {
+            System.out.println("a.drainTo(b) racing b.drainTo(a) left " + (a.size() + b.size()) + " elements of 8");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        testDrainToBounded();
+        testDrainToLockFree();
+        testCrossDrain();
+    }
+}
@@ -0,0 +1,211 @@
+package queue;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: n >= 0
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ */
+
+public class IntArrayQueue {
+    // Invariant: elements.length is a power of two && forall i=1..n: a[i] = elements[(head + i - 1) & mask]
+    private int[] elements;
+    private int head;
+    private int size;
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    public IntArrayQueue() {
+        this(2);
+    }
+
+    /*
+     * Precondition: 0 < capacity <= 2^30
+     *
+     * Postconditions:
+     * - n = 0
+     * - no reallocation happens while n <= capacity
+     */
+    public IntArrayQueue(int capacity) {
+        elements = new int[RingIndices.ringLength(capacity)];
+    }
+
+    private int arrayIndex(int i) {
+        return (head + i) & (elements.length - 1);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    public void enqueue(int element) {
+        ensureCapacity(size + 1);
+        elements[arrayIndex(size)] = element;
+        size++;
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postcondition:
+     * - R = a[1]
+     * - totally_immutable
+     */
+    public int element() {
+        assert size > 0;
+
+        return elements[head];
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    public int dequeue() {
+        assert size > 0;
+
+        final int result = elements[head];
+        head = arrayIndex(1);
+        size--;
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[1] = element
+     * - forall i=2..n' a'[i] = a[i - 1]
+     */
+    public void push(int element) {
+        ensureCapacity(size + 1);
+        head = arrayIndex(-1);
+        elements[head] = element;
+        size++;
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[n]
+     * - totally_immutable
+     */
+    public int peek() {
+        assert size > 0;
+
+        return elements[arrayIndex(size - 1)];
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[n]
+     * - n' = n - 1
+     * - immutable(n')
+     */
+    public int remove() {
+        assert size > 0;
+
+        size--;
+        return elements[arrayIndex(size)];
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n
+     * - totally_immutable
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n = 0
+     * - the storage is kept, so refilling does not allocate
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = a
+     * - totally_immutable
+     */
+    public int[] toArray() {
+        final int[] array = new int[size];
+        copyTo(array);
+
+        return array;
+    }
+
+    /*
+     * Precondition: dest.length >= n
+     *
+     * Postconditions:
+     * - forall i=0..n-1: dest'[i] = a[i + 1]
+     * - totally_immutable
+     */
+    private void copyTo(int[] dest) {
+        // At most two copies: up to the end of the ring, then from its start
+        final int first = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, dest, 0, first);
+        System.arraycopy(elements, 0, dest, first, size - first);
+    }
+
+    /*
+     * Precondition: capacity >= 0
+     *
+     * Postconditions:
+     * - totally_immutable
+     * - elements.length >= capacity
+     */
+    private void ensureCapacity(int capacity) {
+        if (elements.length < capacity) {
+            final int[] copy = new int[elements.length * 2];
+            copyTo(copy);
+            elements = copy;
+            head = 0;
+        }
+    }
+}
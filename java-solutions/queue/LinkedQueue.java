@@ -85,6 +85,50 @@ public class LinkedQueue extends AbstractQueue {
         head.next = tail;
     }
 
+    /*
+     * Preconditions:
+     * - other != null && other != this
+     * - 0 <= count <= n
+     *
+     * Postconditions:
+     * - if R = true: a[1..count] are enqueued to other in order, forall i=1..n-count a'[i] = a[i + count]
+     * - if R = false: other cannot be filled in bulk, totally_immutable
+     * - size' = size
+     */
+    @Override
+    protected boolean drainToImpl(Queue other, int count) {
+        if (!(other instanceof LinkedQueue)) {
+            return false;
+        }
+        if (count == 0) {
+            return true;
+        }
+
+        final LinkedQueue target = (LinkedQueue) other;
+        final Node first = head.next;
+        Node last = first;
+        for (int i = 1; i < count; i++) {
+            last = last.next;
+        }
+        final Node rest = last.next;
+        final Node newTail = new Node();
+
+        // The empty tail of target takes the first value, the nodes of a[2..count] are moved as they are
+        target.tail.value = first.value;
+        if (count == 1) {
+            target.tail.next = newTail;
+        } else {
+            target.tail.next = first.next;
+            last.next = newTail;
+        }
+        target.tail = newTail;
+        target.size += count;
+        target.modCount++;
+
+        head.next = rest;
+        return true;
+    }
+
     /*
      * Precondition: n > 0
      *
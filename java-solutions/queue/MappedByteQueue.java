@@ -0,0 +1,329 @@
+package queue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n], byte records persisted in a directory
+ *
+ * Invariant: n >= 0 && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ *
+ * Layout:
+ *  - "queue.header": MAGIC, segment size, head segment and offset, tail segment and offset, n
+ *  - "<index>.segment": segmentSize bytes of records, each is an int length followed by the payload;
+ *    a length of END (or less than 4 bytes left) marks the end of the records of a segment
+ *  - segments before the head segment are deleted once the head leaves them; where a mapped file cannot
+ *    be deleted (Windows), deletion is retried on later segment changes and when the queue is reopened
+ *
+ * A queue must be used by one thread and opened by one process at a time.
+ */
+
+public class MappedByteQueue implements Closeable {
+    private static final int MAGIC = 0x4d425131;
+    private static final int END = -1;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int SEGMENT_SIZE_OFFSET = 4;
+    private static final int HEAD_SEGMENT_OFFSET = 8;
+    private static final int HEAD_OFFSET_OFFSET = 16;
+    private static final int TAIL_SEGMENT_OFFSET = 24;
+    private static final int TAIL_OFFSET_OFFSET = 32;
+    private static final int SIZE_OFFSET = 40;
+
+    private final Path directory;
+    private final MappedByteBuffer header;
+    private final int segmentSize;
+    private final Map<Long, MappedByteBuffer> segments = new HashMap<>();
+    // Segments behind the head whose files could not be deleted yet
+    private final Set<Long> pendingDeletes = new TreeSet<>();
+
+    // Cached copies of the header fields
+    private long headSegment;
+    private int headOffset;
+    private long tailSegment;
+    private int tailOffset;
+    private long size;
+
+    /*
+     * Preconditions:
+     * - directory != null
+     * - segmentSize >= 8
+     *
+     * Postconditions:
+     * - if directory holds a queue: a = its records, segmentSize = the size it was created with
+     * - else: n = 0, a new queue is created in directory
+     */
+    public MappedByteQueue(Path directory, int segmentSize) throws IOException {
+        this.directory = Objects.requireNonNull(directory);
+        Files.createDirectories(directory);
+
+        try (FileChannel channel = FileChannel.open(directory.resolve("queue.header"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        }
+
+        if (header.getInt(MAGIC_OFFSET) == MAGIC) {
+            this.segmentSize = header.getInt(SEGMENT_SIZE_OFFSET);
+            headSegment = header.getLong(HEAD_SEGMENT_OFFSET);
+            headOffset = (int) header.getLong(HEAD_OFFSET_OFFSET);
+            tailSegment = header.getLong(TAIL_SEGMENT_OFFSET);
+            tailOffset = (int) header.getLong(TAIL_OFFSET_OFFSET);
+            size = header.getLong(SIZE_OFFSET);
+        } else {
+            if (segmentSize < 8) {
+                throw new IllegalArgumentException("segmentSize = " + segmentSize + " < 8");
+            }
+            this.segmentSize = segmentSize;
+            header.putInt(SEGMENT_SIZE_OFFSET, segmentSize);
+            writeHeader();
+            header.putInt(MAGIC_OFFSET, MAGIC);
+        }
+
+        // Segments a previous process left behind the head, e.g. because they were still mapped
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.matches("\\d{19}\\.segment"))
+                    .mapToLong(name -> Long.parseLong(name.substring(0, 19)))
+                    .filter(segment -> segment < headSegment)
+                    .forEach(pendingDeletes::add);
+        }
+        deletePending();
+    }
+
+    /*
+     * Preconditions:
+     * - payload != null
+     * - payload.remaining() <= segmentSize - 4
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = payload.remaining() bytes of payload from its position
+     * - immutable(n)
+     * - payload' = payload
+     */
+    public void enqueue(ByteBuffer payload) throws IOException {
+        final int length = payload.remaining();
+        if (length > segmentSize - Integer.BYTES) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit into a segment of " + segmentSize);
+        }
+
+        if (tailOffset + Integer.BYTES + length > segmentSize) {
+            if (tailOffset + Integer.BYTES <= segmentSize) {
+                segment(tailSegment).putInt(tailOffset, END);
+            }
+            tailSegment++;
+            tailOffset = 0;
+        }
+
+        final MappedByteBuffer segment = segment(tailSegment);
+        segment.putInt(tailOffset, length);
+        segment.put(tailOffset + Integer.BYTES, payload, payload.position(), length);
+        tailOffset += Integer.BYTES + length;
+        size++;
+
+        // The record is written before the header makes it visible
+        writeHeader();
+    }
+
+    /*
+     * Preconditions:
+     * - payload != null
+     * - payload.length <= segmentSize - 4
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = payload
+     * - immutable(n)
+     */
+    public void enqueue(byte[] payload) throws IOException {
+        enqueue(ByteBuffer.wrap(payload));
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = read-only view of a[1] in the mapped segment, without copying
+     * - totally_immutable
+     */
+    public ByteBuffer element() throws IOException {
+        assert size > 0;
+
+        long segment = headSegment;
+        int offset = headOffset;
+        if (isSegmentEnd(segment, offset)) {
+            segment++;
+            offset = 0;
+        }
+        return record(segment, offset);
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = read-only view of a[1] in the mapped segment, without copying
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    public ByteBuffer dequeue() throws IOException {
+        assert size > 0;
+
+        final long oldSegment = headSegment;
+        if (isSegmentEnd(headSegment, headOffset)) {
+            headSegment++;
+            headOffset = 0;
+        }
+
+        final ByteBuffer result = record(headSegment, headOffset);
+        headOffset += Integer.BYTES + result.remaining();
+        size--;
+        writeHeader();
+
+        // The header leaves the old segment before its file goes, a crash in between leaves it to the constructor
+        if (headSegment != oldSegment) {
+            reclaim(oldSegment);
+        }
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n
+     * - totally_immutable
+     */
+    public long size() {
+        return size;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n = 0
+     * - all segment files are deleted
+     */
+    public void clear() throws IOException {
+        final long oldHead = headSegment;
+        final long oldTail = tailSegment;
+        headSegment = tailSegment = tailSegment + 1;
+        headOffset = tailOffset = 0;
+        size = 0;
+        writeHeader();
+
+        for (long segment = oldHead; segment <= oldTail; segment++) {
+            reclaim(segment);
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - totally_immutable
+     * - the records and the header are written to the storage device
+     */
+    public void sync() {
+        for (final MappedByteBuffer segment : segments.values()) {
+            segment.force();
+        }
+        header.force();
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: the queue must not be used anymore; it is persisted by the OS even without sync
+     */
+    @Override
+    public void close() {
+        segments.clear();
+    }
+
+    private boolean isSegmentEnd(long segment, int offset) throws IOException {
+        return offset + Integer.BYTES > segmentSize || segment(segment).getInt(offset) == END;
+    }
+
+    private ByteBuffer record(long segment, int offset) throws IOException {
+        final MappedByteBuffer buffer = segment(segment);
+        final int length = buffer.getInt(offset);
+        return buffer.slice(offset + Integer.BYTES, length).asReadOnlyBuffer();
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%019d.segment", segment));
+    }
+
+    private MappedByteBuffer segment(long segment) throws IOException {
+        MappedByteBuffer buffer = segments.get(segment);
+        if (buffer == null) {
+            try (FileChannel channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            }
+            segments.put(segment, buffer);
+        }
+        return buffer;
+    }
+
+    private void reclaim(long segment) {
+        segments.remove(segment);
+        pendingDeletes.add(segment);
+        deletePending();
+    }
+
+    /*
+     * Postcondition: the files of pendingDeletes that could be deleted are deleted and dropped from it
+     */
+    private void deletePending() {
+        // Java cannot unmap a file explicitly; the mapping is released once the GC collects every view of it.
+        // POSIX systems delete a mapped file at once and keep the views readable, Windows refuses until then.
+        pendingDeletes.removeIf(segment -> {
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+                return true;
+            } catch (final IOException e) {
+                return false;
+            }
+        });
+    }
+
+    private void writeHeader() {
+        header.putLong(HEAD_SEGMENT_OFFSET, headSegment);
+        header.putLong(HEAD_OFFSET_OFFSET, headOffset);
+        header.putLong(TAIL_SEGMENT_OFFSET, tailSegment);
+        header.putLong(TAIL_OFFSET_OFFSET, tailOffset);
+        header.putLong(SIZE_OFFSET, size);
+    }
+}
@@ -0,0 +1,146 @@
+package queue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class MappedByteQueueTest {
+    // 20 bytes of payload and a 4-byte length: two records per 64-byte segment
+    private static final int SEGMENT_SIZE = 64;
+    private static final int RECORD_SIZE = 20;
+
+    private static byte[] record(int i) {
+        final byte[] payload = new byte[RECORD_SIZE];
+        for (int j = 0; j < payload.length; j++) {
+            payload[j] = (byte) (i + j);
+        }
+        return payload;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int i) {
+        return buffer.equals(ByteBuffer.wrap(record(i)));
+    }
+
+    private static long segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".segment")).count();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // The records survive a reopen, including the ones in segments the head has not reached
+    private static void testReopen(Path directory) throws IOException {
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 9; i++) {
+                queue.enqueue(record(i));
+            }
+            for (int i = 0; i < 3; i++) {
+                if (!matches(queue.dequeue(), i)) {
+                    System.out.println("dequeue() before reopening must return record " + i);
+                }
+            }
+        }
+
+        // The segment size of an existing queue is taken from its header
+        try (MappedByteQueue queue = new MappedByteQueue(directory, 1024)) {
+            if (queue.size() != 6) {
+                System.out.println("Reopened queue of 6 records has size() = " + queue.size());
+            }
+            if (!matches(queue.element(), 3)) {
+                System.out.println("element() after reopening must return record 3");
+            }
+            for (int i = 3; i < 9; i++) {
+                if (!matches(queue.dequeue(), i)) {
+                    System.out.println("dequeue() after reopening must return record " + i);
+                }
+            }
+            if (!queue.isEmpty()) {
+                System.out.println("queue must be empty after every record was dequeued");
+            }
+            queue.enqueue(record(9));
+        }
+
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            if (queue.size() != 1 || !matches(queue.dequeue(), 9)) {
+                System.out.println("record enqueued after draining must survive a reopen");
+            }
+        }
+    }
+
+    private static void testClear(Path directory) throws IOException {
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 7; i++) {
+                queue.enqueue(record(i));
+            }
+            queue.dequeue();
+            queue.clear();
+            if (!queue.isEmpty()) {
+                System.out.println("queue must be empty after clear()");
+            }
+            if (segmentFiles(directory) != 0) {
+                System.out.println("clear() left " + segmentFiles(directory) + " segment files");
+            }
+            queue.enqueue(record(7));
+        }
+
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            if (queue.size() != 1 || !matches(queue.dequeue(), 7)) {
+                System.out.println("clear() then enqueue must survive a reopen with only the new record");
+            }
+        }
+    }
+
+    // A crash after the header left a segment but before its file was deleted leaves the file behind
+    private static void testStaleSegments(Path directory) throws IOException {
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            for (int i = 0; i < 8; i++) {
+                queue.enqueue(record(i));
+            }
+            for (int i = 0; i < 5; i++) {
+                queue.dequeue();
+            }
+        }
+        if (segmentFiles(directory) != 2) {
+            System.out.println("Dequeueing 5 of 8 records must leave 2 segment files, but "
+                    + segmentFiles(directory) + " are left");
+        }
+
+        // Recreate the files of the segments the head has already left
+        for (int segment = 0; segment < 2; segment++) {
+            Files.write(directory.resolve(String.format("%019d.segment", segment)), new byte[SEGMENT_SIZE]);
+        }
+
+        try (MappedByteQueue queue = new MappedByteQueue(directory, SEGMENT_SIZE)) {
+            if (segmentFiles(directory) != 2) {
+                System.out.println("Reopening must delete the segments behind the head, "
+                        + segmentFiles(directory) + " segment files are left");
+            }
+            for (int i = 5; i < 8; i++) {
+                if (!matches(queue.dequeue(), i)) {
+                    System.out.println("dequeue() after recovery must return record " + i);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path root = Files.createTempDirectory("mapped-byte-queue");
+        try {
+            testReopen(root.resolve("reopen"));
+            testClear(root.resolve("clear"));
+            testStaleSegments(root.resolve("stale"));
+        } finally {
+            delete(root);
+        }
+    }
+}
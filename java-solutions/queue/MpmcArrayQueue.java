@@ -0,0 +1,230 @@
+package queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: 0 <= n <= capacity && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ *
+ * Every operation is linearizable, so the contracts hold for concurrent callers
+ * with respect to the linearization order.
+ */
+
+public class MpmcArrayQueue extends RingIndices implements Queue {
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    // Invariant (Vyukov): for slot i and the position p of its current lap,
+    //  sequences[i] = p -> the slot is free for the producer of position p
+    //  sequences[i] = p + 1 -> the slot holds the element of position p for its consumer
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    /*
+     * Precondition: 0 < capacity <= 2^30
+     *
+     * Postconditions:
+     * - n = 0
+     * - capacity = the smallest power of two >= max(2, the requested capacity)
+     */
+    public MpmcArrayQueue(int capacity) {
+        // A single slot cannot tell a full lap from a free one, so at least two slots are used
+        final int length = Math.max(2, ringLength(capacity));
+        elements = new Object[length];
+        sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+        mask = length - 1;
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     *
+     * Postconditions:
+     * if n < capacity:
+     * - R = true
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     *
+     * else:
+     * - R = false
+     * - totally_immutable
+     */
+    public boolean offer(Object element) {
+        Objects.requireNonNull(element);
+
+        long position = tail;
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (TAIL.compareAndSet(this, position, position + 1)) {
+                    elements[index] = element;
+                    // Publishes the element to the consumer of this position
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail;
+            } else if (difference < 0) {
+                // The slot still holds the element of the previous lap: the queue is full
+                return false;
+            } else {
+                position = tail;
+            }
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * if n > 0:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object poll() {
+        long position = head;
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (HEAD.compareAndSet(this, position, position + 1)) {
+                    final Object result = elements[index];
+                    elements[index] = null;
+                    // Frees the slot for the producer of the next lap
+                    sequences.lazySet(index, position + mask + 1);
+                    return result;
+                }
+                position = head;
+            } else if (difference < 0) {
+                // The producer of this position has not published yet: the queue is empty
+                return null;
+            } else {
+                position = head;
+            }
+        }
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - n < capacity
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    @Override
+    public void enqueue(Object element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full, capacity = " + capacity());
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postcondition:
+     * - R = a[1]
+     * - totally_immutable
+     */
+    @Override
+    public Object element() {
+        while (true) {
+            final long position = head;
+            final int index = (int) position & mask;
+            if (sequences.get(index) - (position + 1) < 0) {
+                assert false : "Queue is empty";
+                return null;
+            }
+
+            // Acquire: the re-check of head below cannot be reordered before this load
+            final Object result = ELEMENTS.getAcquire(elements, index);
+            // The element was not consumed between reading the head and the slot
+            if (result != null && head == position) {
+                return result;
+            }
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    @Override
+    public Object dequeue() {
+        final Object result = poll();
+        assert result != null : "Queue is empty";
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n at some moment during the call
+     * - totally_immutable
+     */
+    @Override
+    public int size() {
+        return size(capacity());
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: every element present at the start of the call has been dequeued
+     */
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // Drains the elements one by one, as concurrent producers may keep adding
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,109 @@
+package queue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MpmcArrayQueueTest {
+    private static final int PRODUCERS = 3;
+    private static final int CONSUMERS = 3;
+    private static final int PER_PRODUCER = 100_000;
+
+    private static void testSingleThreaded() {
+        final MpmcArrayQueue queue = new MpmcArrayQueue(3);
+        if (queue.capacity() != 4) {
+            System.out.println("capacity 3 must be rounded up to 4, but capacity() = " + queue.capacity());
+        }
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                if (!queue.offer(i)) {
+                    System.out.println("offer to a non-full queue failed");
+                }
+            }
+            if (queue.offer(4)) {
+                System.out.println("offer to a full queue succeeded");
+            }
+            for (int i = 0; i < 4; i++) {
+                final Object element = queue.poll();
+                if (!Integer.valueOf(i).equals(element)) {
+                    System.out.println("Offered " + i + ", but polled " + element);
+                }
+            }
+            if (queue.poll() != null || !queue.isEmpty()) {
+                System.out.println("queue must be empty after polling every element");
+            }
+        }
+    }
+
+    // Each element encodes its producer and its sequence number within that producer
+    private static void testConcurrent() throws InterruptedException {
+        final MpmcArrayQueue queue = new MpmcArrayQueue(64);
+        final AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+        final AtomicLong remaining = new AtomicLong(PRODUCERS * PER_PRODUCER);
+        final AtomicLong orderErrors = new AtomicLong();
+
+        final Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    while (!queue.offer(producer * PER_PRODUCER + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMERS; c++) {
+            threads[PRODUCERS + c] = new Thread(() -> {
+                // A single consumer sees the elements of each producer in the order they were offered
+                final int[] last = new int[PRODUCERS];
+                Arrays.fill(last, -1);
+                while (remaining.get() > 0) {
+                    final Object element = queue.poll();
+                    if (element == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    final int value = (Integer) element;
+                    final int producer = value / PER_PRODUCER;
+                    if (value % PER_PRODUCER <= last[producer]) {
+                        orderErrors.incrementAndGet();
+                    }
+                    last[producer] = value % PER_PRODUCER;
+                    seen.incrementAndGet(value);
+                    remaining.decrementAndGet();
+                }
+            });
+        }
+
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        int lost = 0;
+        int duplicated = 0;
+        for (int i = 0; i < seen.length(); i++) {
+            if (seen.get(i) == 0) {
+                lost++;
+            } else if (seen.get(i) > 1) {
+                duplicated++;
+            }
+        }
+        if (lost != 0 || duplicated != 0 || orderErrors.get() != 0) {
+            System.out.println(lost + " elements lost, " + duplicated + " duplicated, "
+                    + orderErrors.get() + " out of per-producer order");
+        }
+        if (!queue.isEmpty()) {
+            System.out.println("queue must be empty after every element was consumed");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        testSingleThreaded();
+        testConcurrent();
+    }
+}
@@ -0,0 +1,133 @@
+package queue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class QueueBulkTest {
+    private static List<Object> contents(AbstractQueue queue) {
+        final List<Object> list = new ArrayList<>();
+        for (final Object element : queue) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    private static void check(String test, AbstractQueue queue, Object... expected) {
+        final List<Object> actual = contents(queue);
+        if (!actual.equals(Arrays.asList(expected)) || queue.size() != expected.length) {
+            System.out.println(test + ": expected " + Arrays.toString(expected)
+                    + ", but the queue holds " + actual + " with size() = " + queue.size());
+        }
+    }
+
+    // Leaves a queue holding [first, first + 1, ..., first + count - 1] stored across the end of its ring
+    private static ArrayQueue wrapped(int first, int count) {
+        final ArrayQueue queue = new ArrayQueue(count);
+        for (int i = 0; i < count; i++) {
+            queue.enqueue(first - count / 2 + i);
+        }
+        for (int i = 0; i < count / 2; i++) {
+            queue.dequeue();
+        }
+        for (int i = 0; i < count / 2; i++) {
+            queue.enqueue(first + count - count / 2 + i);
+        }
+        return queue;
+    }
+
+    private static void testEnqueueAllWrap() {
+        final ArrayQueue queue = wrapped(0, 4);
+        queue.dequeue();
+        queue.enqueueAll(new Object[]{-1, 4, -1}, 1, 1);
+        check("enqueueAll across the ring end", queue, 1, 2, 3, 4);
+
+        queue.enqueueAll(new Object[]{5, 6, 7}, 0, 3);
+        check("enqueueAll with growth", queue, 1, 2, 3, 4, 5, 6, 7);
+    }
+
+    private static void testDequeueIntoWrap() {
+        final ArrayQueue queue = wrapped(0, 6);
+        final Object[] dst = new Object[7];
+        final int count = queue.dequeueInto(dst, 1, 5);
+        if (count != 5 || !Arrays.equals(dst, new Object[]{null, 0, 1, 2, 3, 4, null})) {
+            System.out.println("dequeueInto across the ring end returned " + count + ", " + Arrays.toString(dst));
+        }
+        check("dequeueInto across the ring end", queue, 5);
+
+        if (queue.dequeueInto(dst, 0, 10) != 1 || !queue.isEmpty()) {
+            System.out.println("dequeueInto with max > n must take all elements");
+        }
+    }
+
+    private static void testArrayDrain() {
+        final ArrayQueue source = wrapped(0, 6);
+        final ArrayQueue target = wrapped(10, 4);
+        if (source.drainTo(target, 4) != 4) {
+            System.out.println("drainTo must return the number of moved elements");
+        }
+        check("drainTo between rings, source", source, 4, 5);
+        check("drainTo between rings, target", target, 10, 11, 12, 13, 0, 1, 2, 3);
+    }
+
+    private static void testLinkedSplice() {
+        final LinkedQueue source = new LinkedQueue();
+        final LinkedQueue target = new LinkedQueue();
+        source.enqueueAll(new Object[]{0, 1, 2, 3, 4}, 0, 5);
+        target.enqueue(10);
+
+        source.drainTo(target, 1);
+        check("splice of one node, source", source, 1, 2, 3, 4);
+        check("splice of one node, target", target, 10, 0);
+
+        source.drainTo(target, 3);
+        check("splice of several nodes, source", source, 4);
+        check("splice of several nodes, target", target, 10, 0, 1, 2, 3);
+
+        target.enqueue(5);
+        source.drainTo(target, 10);
+        check("splice of the whole queue, source", source);
+        check("splice of the whole queue, target", target, 10, 0, 1, 2, 3, 5, 4);
+    }
+
+    private static void testFallbackDrain() {
+        final ArrayQueue array = wrapped(0, 4);
+        final LinkedQueue linked = new LinkedQueue();
+        array.drainTo(linked, 3);
+        check("drainTo from a ring to a list, source", array, 3);
+        check("drainTo from a ring to a list, target", linked, 0, 1, 2);
+
+        linked.drainTo(array, 2);
+        check("drainTo from a list to a ring, source", linked, 2);
+        check("drainTo from a list to a ring, target", array, 3, 0, 1);
+    }
+
+    private static void testFailingTarget() {
+        final ArrayQueue source = new ArrayQueue();
+        source.enqueueAll(new Object[]{0, 1, 2, 3}, 0, 4);
+        final MpmcArrayQueue target = new MpmcArrayQueue(2);
+
+        // The target holds two elements at most
+        final int moved = source.drainTo(target, 4);
+        if (moved != 2) {
+            System.out.println("drainTo to a bounded queue of capacity 2 must return 2, but returned " + moved);
+        }
+
+        check("drainTo to a full bounded queue, source", source, 2, 3);
+        if (target.size() != 2 || !target.dequeue().equals(0) || !target.dequeue().equals(1)) {
+            System.out.println("drainTo to a full bounded queue must move exactly the accepted elements");
+        }
+        if (!source.dequeue().equals(2) || !source.dequeue().equals(3) || !source.isEmpty()) {
+            System.out.println("drainTo to a full bounded queue must not lose the rejected element");
+        }
+    }
+
+    public static void main(String[] args) {
+        testEnqueueAllWrap();
+        testDequeueIntoWrap();
+        testArrayDrain();
+        testLinkedSplice();
+        testFallbackDrain();
+        testFailingTarget();
+    }
+}
@@ -0,0 +1,80 @@
+package queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Head and tail are separated by 64 bytes of padding on each side,
+// so the consumers and the producers do not invalidate each other's cache line
+abstract class RingIndicesPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class RingIndicesHead extends RingIndicesPad0 {
+    // Position of a[1]
+    volatile long head;
+}
+
+abstract class RingIndicesPad1 extends RingIndicesHead {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class RingIndicesTail extends RingIndicesPad1 {
+    // Position after a[n]
+    volatile long tail;
+}
+
+abstract class RingIndicesPad2 extends RingIndicesTail {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+/*
+ * Padded head and tail positions shared by the concurrent rings: a = positions head..tail-1, n = tail - head,
+ * stored at position & (length - 1)
+ */
+abstract class RingIndices extends RingIndicesPad2 {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    static final VarHandle HEAD;
+    static final VarHandle TAIL;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(RingIndicesHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(RingIndicesTail.class, "tail", long.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+     * Precondition: 0 < capacity <= MAX_CAPACITY, IllegalArgumentException otherwise
+     *
+     * Postcondition: R = the smallest power of two >= capacity
+     */
+    static int ringLength(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity = " + capacity);
+        }
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = tail - head at some moment during the call, clamped to [0, capacity]
+     * - totally_immutable
+     */
+    final int size(int capacity) {
+        while (true) {
+            final long before = head;
+            final long currentTail = tail;
+            final long after = head;
+            if (before == after) {
+                // A concurrent operation may have moved one index past the other for a moment
+                return (int) Math.max(0, Math.min(capacity, currentTail - after));
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: 0 <= n <= capacity && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ *
+ * At most one thread (the producer) calls enqueue/offer and at most one thread (the consumer)
+ * calls element/dequeue/poll/clear at a time; size and isEmpty may be called from any thread.
+ */
+
+// The producer fields and the consumer fields live on separate cache lines
+abstract class SpscArrayQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscArrayQueueProducer extends SpscArrayQueuePad0 {
+    // Written by the producer only
+    long tail;
+    // Producer's last seen value of head, refreshed only when the ring looks full
+    long headCache;
+}
+
+abstract class SpscArrayQueuePad1 extends SpscArrayQueueProducer {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class SpscArrayQueueConsumer extends SpscArrayQueuePad1 {
+    // Written by the consumer only
+    long head;
+    // Consumer's last seen value of tail, refreshed only when the ring looks empty
+    long tailCache;
+}
+
+abstract class SpscArrayQueuePad2 extends SpscArrayQueueConsumer {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+public class SpscArrayQueue extends SpscArrayQueuePad2 implements Queue {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscArrayQueueConsumer.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscArrayQueueProducer.class, "tail", long.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Invariant: forall i=1..n: a[i] = elements[(head + i - 1) & mask], n = tail - head
+    private final Object[] elements;
+    private final int mask;
+
+    /*
+     * Precondition: 0 < capacity <= 2^30
+     *
+     * Postconditions:
+     * - n = 0
+     * - capacity = the smallest power of two >= the requested capacity
+     */
+    public SpscArrayQueue(int capacity) {
+        final int length = RingIndices.ringLength(capacity);
+        elements = new Object[length];
+        mask = length - 1;
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - called by the producer
+     *
+     * Postconditions:
+     * if n < capacity:
+     * - R = true
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     *
+     * else:
+     * - R = false
+     * - totally_immutable
+     */
+    public boolean offer(Object element) {
+        Objects.requireNonNull(element);
+
+        final long currentTail = tail;
+        if (currentTail - headCache > mask) {
+            headCache = (long) HEAD.getAcquire(this);
+            if (currentTail - headCache > mask) {
+                return false;
+            }
+        }
+
+        elements[(int) currentTail & mask] = element;
+        // Release: the element is visible before the consumer sees the new tail
+        TAIL.setRelease(this, currentTail + 1);
+        return true;
+    }
+
+    /*
+     * Precondition:
+     * - called by the consumer
+     *
+     * Postconditions:
+     * if n > 0:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object poll() {
+        final long currentHead = head;
+        if (currentHead == tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+            if (currentHead == tailCache) {
+                return null;
+            }
+        }
+
+        final int index = (int) currentHead & mask;
+        final Object result = elements[index];
+        elements[index] = null;
+        // Release: the slot is cleared before the producer sees it as free
+        HEAD.setRelease(this, currentHead + 1);
+        return result;
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - n < capacity
+     * - called by the producer
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    @Override
+    public void enqueue(Object element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full, capacity = " + capacity());
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     * - called by the consumer
+     *
+     * Postcondition:
+     * - R = a[1]
+     * - totally_immutable
+     */
+    @Override
+    public Object element() {
+        final long currentHead = head;
+        if (currentHead == tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+        }
+        assert currentHead != tailCache : "Queue is empty";
+
+        return elements[(int) currentHead & mask];
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     * - called by the consumer
+     *
+     * Postconditions:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    @Override
+    public Object dequeue() {
+        final Object result = poll();
+        assert result != null : "Queue is empty";
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n at some moment during the call
+     * - totally_immutable
+     */
+    @Override
+    public int size() {
+        while (true) {
+            final long before = (long) HEAD.getAcquire(this);
+            final long currentTail = (long) TAIL.getAcquire(this);
+            final long after = (long) HEAD.getAcquire(this);
+            if (before == after) {
+                return (int) (currentTail - after);
+            }
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * Precondition:
+     * - called by the consumer
+     *
+     * Postcondition: every element published before the call has been dequeued
+     */
+    @Override
+    public void clear() {
+        while (poll() != null) {
+            // Drains the elements one by one, the producer may keep adding
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
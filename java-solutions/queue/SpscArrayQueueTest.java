@@ -0,0 +1,76 @@
+package queue;
+
+public class SpscArrayQueueTest {
+    private static final int ELEMENTS = 200_000;
+
+    private static void testCapacity() {
+        final int[][] expected = {{1, 1}, {2, 2}, {3, 4}, {5, 8}, {8, 8}};
+        for (final int[] pair : expected) {
+            final int capacity = new SpscArrayQueue(pair[0]).capacity();
+            if (capacity != pair[1]) {
+                System.out.println("capacity " + pair[0] + " must be rounded up to " + pair[1] + ", but capacity() = " + capacity);
+            }
+        }
+    }
+
+    private static void testSingleSlot() {
+        final SpscArrayQueue queue = new SpscArrayQueue(1);
+        for (int i = 0; i < 3; i++) {
+            if (!queue.offer(i) || queue.offer(-1)) {
+                System.out.println("a queue of capacity 1 must accept exactly one element");
+            }
+            final Object element = queue.poll();
+            if (!Integer.valueOf(i).equals(element) || queue.poll() != null) {
+                System.out.println("Offered " + i + ", but polled " + element);
+            }
+        }
+    }
+
+    // The producer offers 0, 1, 2, ...; the consumer must poll them in the same order
+    private static void testHandOff(int capacity) throws InterruptedException {
+        final SpscArrayQueue queue = new SpscArrayQueue(capacity);
+        final int[] mismatch = {-1, -1};
+
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < ELEMENTS; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        final Thread consumer = new Thread(() -> {
+            for (int i = 0; i < ELEMENTS; i++) {
+                Object element;
+                while ((element = queue.poll()) == null) {
+                    Thread.yield();
+                }
+                if ((Integer) element != i) {
+                    mismatch[0] = i;
+                    mismatch[1] = (Integer) element;
+                    return;
+                }
+            }
+        });
+
+        // A producer stuck on a full queue after a mismatch must not keep the JVM alive
+        producer.setDaemon(true);
+        producer.start();
+        consumer.start();
+        consumer.join();
+        if (mismatch[0] >= 0) {
+            System.out.println("capacity " + capacity + ": expected " + mismatch[0] + ", but polled " + mismatch[1]);
+            return;
+        }
+        producer.join();
+        if (!queue.isEmpty()) {
+            System.out.println("capacity " + capacity + ": queue must be empty after every element was polled");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        testCapacity();
+        testSingleSlot();
+        testHandOff(1);
+        testHandOff(16);
+    }
+}
@@ -0,0 +1,304 @@
+package queue;
+
+import java.util.Arrays;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: n >= 0 && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ * Let: occurrences(element) = { i | a[i] = element }
+ * Let: remove(i): n' = n - 1 && immutable(i - 1) && forall j=i..n' a'[j] = a[j + 1]
+ */
+
+public class UnrolledLinkedQueue extends AbstractQueue {
+    private static final int CHUNK = 16;
+    // Empty chunks kept for reuse, enough to absorb the usual enqueue/dequeue churn
+    private static final int MAX_FREE = 4;
+
+    private static class Chunk {
+        // Invariant: values[start..end-1] != null, all other slots are null
+        private final Object[] values = new Object[CHUNK];
+        private int start;
+        private int end;
+        private Chunk next;
+    }
+
+    // Invariant:
+    // - a = the values of the chunks from head to tail, in order
+    // - every chunk except tail is not empty
+    // - an empty tail has start = end = 0
+    private Chunk head;
+    private Chunk tail;
+
+    // Singly linked through next, at most MAX_FREE empty chunks
+    private Chunk free;
+    private int freeCount;
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    public UnrolledLinkedQueue() {
+        head = tail = new Chunk();
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     *
+     * Postcondition:
+     * - a[n + 1] = element
+     * - immutable(n)
+     * - n' = n
+     */
+    @Override
+    protected void enqueueImpl(Object element) {
+        if (tail.end == CHUNK) {
+            tail = tail.next = allocate();
+        }
+        tail.values[tail.end++] = element;
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postcondition:
+     * - R = a[n]
+     * - totally_immutable
+     */
+    @Override
+    protected Object elementImpl() {
+        return head.values[head.start];
+    }
+
+    /*
+     * Preconditions:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[n]
+     * - remove(1)
+     */
+    @Override
+    protected Object dequeueImpl() {
+        final Object result = head.values[head.start];
+        head.values[head.start++] = null;
+        if (head.start == head.end) {
+            releaseHead();
+        }
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    @Override
+    protected void clearImpl() {
+        // The chunks after head are left to the GC, as LinkedQueue does with its nodes
+        Arrays.fill(head.values, null);
+        head.start = head.end = 0;
+        head.next = null;
+        tail = head;
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= off && 0 <= len && off + len <= src.length
+     * - forall i=off..off+len-1: src[i] != null
+     *
+     * Postconditions:
+     * - forall i=1..len: a'[n + i] = src[off + i - 1]
+     * - immutable(n)
+     * - size' = size
+     */
+    @Override
+    protected void enqueueAllImpl(Object[] src, int off, int len) {
+        while (len > 0) {
+            if (tail.end == CHUNK) {
+                tail = tail.next = allocate();
+            }
+            final int count = Math.min(len, CHUNK - tail.end);
+            System.arraycopy(src, off, tail.values, tail.end, count);
+            tail.end += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= count <= n
+     * - 0 <= off && off + count <= dst.length
+     *
+     * Postconditions:
+     * - forall i=1..count: dst'[off + i - 1] = a[i]
+     * - forall i=1..n-count a'[i] = a[i + count]
+     * - size' = size
+     */
+    @Override
+    protected void dequeueIntoImpl(Object[] dst, int off, int count) {
+        while (count > 0) {
+            final int part = Math.min(count, head.end - head.start);
+            System.arraycopy(head.values, head.start, dst, off, part);
+            Arrays.fill(head.values, head.start, head.start + part, null);
+            head.start += part;
+            off += part;
+            count -= part;
+            if (head.start == head.end) {
+                releaseHead();
+            }
+        }
+    }
+
+    /*
+     * Precondition: head is empty
+     *
+     * Postcondition: head is recycled if it is not the last chunk, reset otherwise
+     */
+    private void releaseHead() {
+        if (head == tail) {
+            head.start = head.end = 0;
+        } else {
+            final Chunk empty = head;
+            head = head.next;
+            recycle(empty);
+        }
+    }
+
+    private Chunk allocate() {
+        if (free == null) {
+            return new Chunk();
+        }
+
+        final Chunk chunk = free;
+        free = chunk.next;
+        freeCount--;
+        chunk.next = null;
+        return chunk;
+    }
+
+    /*
+     * Precondition: chunk is empty and unlinked from the queue
+     */
+    private void recycle(Chunk chunk) {
+        if (freeCount < MAX_FREE) {
+            chunk.start = chunk.end = 0;
+            chunk.next = free;
+            free = chunk;
+            freeCount++;
+        }
+    }
+
+    /*
+     * Precondition: n > 0
+     *
+     * Postconditions:
+     * - R.cursor = 1
+     * - totally_immutable
+     */
+    @Override
+    protected AbstractQueueIterator begin() {
+        return new UnrolledLinkedQueueIterator();
+    }
+
+    private class UnrolledLinkedQueueIterator extends AbstractQueueIterator {
+        // Model: cursor
+        // Invariant: cursor == null || 1 <= cursor <= n + 1
+        // Invariant: a[cursor] = chunk.values[offset], offset = chunk.end only at cursor = n + 1
+
+        private Chunk previous;
+        private Chunk chunk = head;
+        private int offset = head.start;
+
+        /*
+         * Precondition:
+         * - cursor != null
+         * - cursor != n + 1
+         *
+         * Postcondition:
+         * - R = a[cursor]
+         * - cursor' = cursor
+         * - totally_immutable
+         */
+        @Override
+        public Object get() {
+            return chunk.values[offset];
+        }
+
+        /*
+         * Precondition:
+         * - cursor != null
+         *
+         * Postcondition:
+         * - R = true, if cursor = n + 1, false otherwise
+         * - cursor' = cursor
+         * - totally_immutable
+         */
+        @Override
+        public boolean isEnd() {
+            return offset == chunk.end;
+        }
+
+        /*
+         * Preconditions:
+         * - cursor != null
+         * - cursor != n + 1
+         *
+         * Postconditions:
+         * - cursor' = cursor
+         * - remove(cursor)
+         */
+        @Override
+        public void removeImpl() {
+            // At most CHUNK - 1 elements are shifted
+            System.arraycopy(chunk.values, offset + 1, chunk.values, offset, chunk.end - offset - 1);
+            chunk.values[--chunk.end] = null;
+
+            if (chunk.start == chunk.end && chunk != tail) {
+                final Chunk empty = chunk;
+                if (previous == null) {
+                    head = chunk.next;
+                } else {
+                    previous.next = chunk.next;
+                }
+                chunk = chunk.next;
+                offset = chunk.start;
+                recycle(empty);
+            } else if (chunk.start == chunk.end) {
+                chunk.start = chunk.end = offset = 0;
+            } else {
+                skipEnd();
+            }
+        }
+
+        /*
+         * Precondition:
+         * - cursor != null
+         * - cursor != n + 1
+         *
+         * Postcondition:
+         * - cursor' = cursor + 1
+         */
+        @Override
+        public void next() {
+            offset++;
+            skipEnd();
+        }
+
+        private void skipEnd() {
+            if (offset == chunk.end && chunk.next != null) {
+                previous = chunk;
+                chunk = chunk.next;
+                offset = chunk.start;
+            }
+        }
+    }
+}
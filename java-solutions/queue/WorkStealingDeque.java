@@ -0,0 +1,273 @@
+package queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/*
+ * Model: a[1], a[2], a[3], ... a[n]
+ *
+ * Invariant: n >= 0 && forall i=1..n: a[i] != null
+ *
+ * Let: immutable(k): forall i=1..k: a[i] = a'[i]
+ * Let: totally_immutable: n' = n && immutable(n)
+ *
+ * Chase-Lev deque: one thread (the owner) calls push/pop/enqueue, it works at the a[n] end as a stack;
+ * any thread calls steal/dequeue/element/clear, which take a[1] from the other end.
+ * size and isEmpty may be called from any thread.
+ * Every operation is linearizable, so the contracts hold with respect to the linearization order.
+ *
+ * head is the top of the Chase-Lev deque, advanced by CAS by the thieves and by the owner taking the last element;
+ * tail is its bottom, written by the owner only.
+ */
+
+public class WorkStealingDeque extends RingIndices implements Queue {
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    // Invariant: forall i=1..n: a[i] = elements[(head + i - 1) & (elements.length - 1)], n = tail - head,
+    // elements.length is a power of two
+    // Replaced by the owner only; a thief may still read the previous array, which keeps the same
+    // elements at the same positions
+    private volatile Object[] elements;
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    public WorkStealingDeque() {
+        this(16);
+    }
+
+    /*
+     * Precondition: 0 < capacity <= 2^30
+     *
+     * Postconditions:
+     * - n = 0
+     * - no reallocation happens while n <= the smallest power of two >= capacity
+     */
+    public WorkStealingDeque(int capacity) {
+        elements = new Object[ringLength(capacity)];
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - called by the owner
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    public void push(Object element) {
+        Objects.requireNonNull(element);
+
+        final long b = tail;
+        final long t = head;
+        Object[] array = elements;
+        if (b - t >= array.length) {
+            array = grow(array, t, b);
+        }
+
+        array[(int) b & (array.length - 1)] = element;
+        // Volatile write: the element (and a grown array) is visible before the thieves see the new tail
+        tail = b + 1;
+    }
+
+    /*
+     * Precondition:
+     * - called by the owner
+     *
+     * Postconditions:
+     * if n > 0:
+     * - R = a[n]
+     * - n' = n - 1
+     * - immutable(n')
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object pop() {
+        final long b = tail - 1;
+        final Object[] array = elements;
+        // Volatile write then volatile read: the thieves see the claim on a[n] before head is read
+        tail = b;
+        final long t = head;
+
+        if (t > b) {
+            // Empty
+            tail = b + 1;
+            return null;
+        }
+
+        final int index = (int) b & (array.length - 1);
+        final Object result = array[index];
+        if (t < b) {
+            // No thief can reach position b any more
+            array[index] = null;
+            return result;
+        }
+
+        // The last element: race the thieves for it on head
+        final boolean won = HEAD.compareAndSet(this, t, t + 1);
+        if (won) {
+            // Thieves that read this slot have lost the CAS, the deque must not keep the returned element
+            array[index] = null;
+        }
+        tail = b + 1;
+        return won ? result : null;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * if n > 0:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     *
+     * else:
+     * - R = null
+     * - totally_immutable
+     */
+    public Object steal() {
+        while (true) {
+            final long t = head;
+            final long b = tail;
+            if (t >= b) {
+                return null;
+            }
+
+            // Read after tail, so it is at least the array the element was pushed into
+            final Object[] array = elements;
+            final int index = (int) t & (array.length - 1);
+            final Object result = array[index];
+            if (HEAD.compareAndSet(this, t, t + 1)) {
+                // The owner may already have reused the slot on the next lap, so it is cleared only if it still
+                // holds the stolen element; otherwise the deque would keep it reachable
+                ELEMENTS.compareAndSet(array, index, result, null);
+                return result;
+            }
+        }
+    }
+
+    /*
+     * Precondition:
+     * - element != null
+     * - called by the owner
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n'] = element
+     * - immutable(n)
+     */
+    @Override
+    public void enqueue(Object element) {
+        push(element);
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postcondition:
+     * - R = a[1]
+     * - totally_immutable
+     */
+    @Override
+    public Object element() {
+        while (true) {
+            final long t = head;
+            final long b = tail;
+            if (t >= b) {
+                assert false : "Deque is empty";
+                return null;
+            }
+
+            final Object[] array = elements;
+            // Acquire: the re-check of head below cannot be reordered before this load
+            final Object result = ELEMENTS.getAcquire(array, (int) t & (array.length - 1));
+            // a[1] was not taken between reading head and the slot
+            if (result != null && head == t) {
+                return result;
+            }
+        }
+    }
+
+    /*
+     * Precondition:
+     * - n > 0
+     *
+     * Postconditions:
+     * - R = a[1]
+     * - n' = n - 1
+     * - forall i=1..n' a'[i] = a[i + 1]
+     */
+    @Override
+    public Object dequeue() {
+        final Object result = steal();
+        assert result != null : "Deque is empty";
+
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = n at some moment during the call
+     * - totally_immutable
+     */
+    @Override
+    public int size() {
+        // pop moves tail below head for a moment before it checks head
+        return size(Integer.MAX_VALUE);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition:
+     * - R = true if n = 0, R = false otherwise
+     * - totally_immutable
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: every element pushed before the call has been taken
+     */
+    @Override
+    public void clear() {
+        while (steal() != null) {
+            // Steals the elements one by one, the owner may keep pushing
+        }
+    }
+
+    /*
+     * Precondition: called by the owner, t = head at some moment, b = tail, b - t = array.length
+     *
+     * Postconditions:
+     * - elements' holds a[1..n] at the same positions, elements'.length = 2 * array.length
+     * - R = elements'
+     */
+    private Object[] grow(Object[] array, long t, long b) {
+        if (array.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Deque is full, capacity = " + array.length);
+        }
+
+        final Object[] copy = new Object[array.length * 2];
+        for (long i = t; i < b; i++) {
+            copy[(int) i & (copy.length - 1)] = array[(int) i & (array.length - 1)];
+        }
+        elements = copy;
+        return copy;
+    }
+}
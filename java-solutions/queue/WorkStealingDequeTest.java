@@ -0,0 +1,105 @@
+package queue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class WorkStealingDequeTest {
+    private static final int THIEVES = 3;
+    private static final int TASKS = 200_000;
+
+    private static void testSingleThreaded() {
+        final WorkStealingDeque deque = new WorkStealingDeque(2);
+        final Deque<Object> javaDeque = new ArrayDeque<>();
+        final Random random = new Random(2525);
+
+        for (int i = 0; i < 10_000; i++) {
+            final int operation = random.nextInt(5);
+            final Object expected;
+            final Object actual;
+            if (operation < 2) {
+                deque.push(i);
+                javaDeque.addLast(i);
+                continue;
+            } else if (operation == 2) {
+                expected = javaDeque.pollLast();
+                actual = deque.pop();
+            } else if (operation == 3) {
+                expected = javaDeque.pollFirst();
+                actual = deque.steal();
+            } else {
+                expected = javaDeque.peekFirst();
+                actual = javaDeque.isEmpty() ? null : deque.element();
+            }
+
+            if (!Objects.equals(expected, actual) || deque.size() != javaDeque.size()) {
+                System.out.println("Expected " + expected + " and size " + javaDeque.size()
+                        + ", but got " + actual + " and size " + deque.size());
+                return;
+            }
+        }
+    }
+
+    // The owner pushes and pops while the thieves steal; every task must be taken exactly once
+    private static void testStealing() throws InterruptedException {
+        final WorkStealingDeque deque = new WorkStealingDeque(2);
+        final AtomicIntegerArray taken = new AtomicIntegerArray(TASKS);
+        final AtomicBoolean done = new AtomicBoolean();
+
+        final Thread[] thieves = new Thread[THIEVES];
+        for (int i = 0; i < THIEVES; i++) {
+            thieves[i] = new Thread(() -> {
+                while (true) {
+                    final Object task = deque.steal();
+                    if (task != null) {
+                        taken.incrementAndGet((Integer) task);
+                    } else if (done.get()) {
+                        return;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            thieves[i].start();
+        }
+
+        final Random random = new Random(2526);
+        for (int i = 0; i < TASKS; i++) {
+            deque.push(i);
+            if (random.nextInt(3) == 0) {
+                final Object task = deque.pop();
+                if (task != null) {
+                    taken.incrementAndGet((Integer) task);
+                }
+            }
+        }
+        for (Object task = deque.pop(); task != null; task = deque.pop()) {
+            taken.incrementAndGet((Integer) task);
+        }
+        done.set(true);
+        for (final Thread thief : thieves) {
+            thief.join();
+        }
+
+        int lost = 0;
+        int duplicated = 0;
+        for (int i = 0; i < TASKS; i++) {
+            if (taken.get(i) == 0) {
+                lost++;
+            } else if (taken.get(i) > 1) {
+                duplicated++;
+            }
+        }
+        if (lost != 0 || duplicated != 0 || !deque.isEmpty()) {
+            System.out.println(lost + " tasks lost, " + duplicated + " taken twice, " + deque.size() + " left");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        testSingleThreaded();
+        testStealing();
+    }
+}
@@ -0,0 +1,105 @@
+package search;
+
+public class AdaptiveSearch {
+    /*
+     * Let: n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M = { i | A[i] <= x }
+     */
+
+    public enum Strategy {
+        BISECTION, INTERPOLATION
+    }
+
+    private static final int SAMPLES = 64;
+
+    private final int[] a;
+    private final Strategy strategy;
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - a' = a
+     */
+    public AdaptiveSearch(int[] a) {
+        this.a = a;
+        this.strategy = choose(a);
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - R = the strategy with the smaller estimated number of probes on a
+     */
+    private static Strategy choose(int[] a) {
+        final int n = a.length;
+        if (n < 2 || a[0] == a[n - 1]) {
+            return Strategy.BISECTION;
+        }
+
+        // Largest distance between a sampled index and the index predicted by the line through a[0] and a[n - 1]
+        final double slope = (double) (n - 1) / ((double) a[0] - a[n - 1]);
+        double error = 0;
+        for (int s = 1; s < SAMPLES; s++) {
+            final int i = (int) ((long) (n - 1) * s / SAMPLES);
+            final double predicted = ((double) a[0] - a[i]) * slope;
+            error = Math.max(error, Math.abs(predicted - i));
+        }
+
+        // Interpolation narrows to the error window in a few steps, then alternates with bisection inside it
+        final double interpolationCost = 2 + 2 * log2(error + 1);
+        final double bisectionCost = log2(n + 1);
+        return interpolationCost < bisectionCost ? Strategy.INTERPOLATION : Strategy.BISECTION;
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M
+     */
+    public int search(int x) {
+        return switch (strategy) {
+            case BISECTION -> BinarySearch.iterativeSearch(x, a);
+            case INTERPOLATION -> BinarySearch.interpolationSearch(x, a);
+        };
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= hint <= n
+     *
+     * Postcondition:
+     * - R = min M
+     */
+    public int search(int x, int hint) {
+        return BinarySearch.gallopingSearch(x, a, hint);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = chosen strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+}
@@ -1,5 +1,9 @@
 package search;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 public class BinarySearch {
     /*
      * Let: n = a.length
@@ -101,29 +105,377 @@ public class BinarySearch {
         }
     }
 
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postcondition:
+     * - R = min M
+     */
+    public static int iterativeSearch(long x, long[] a) {
+        // Invariant: A[l] > x && A[r] <= x
+        int l = -1;
+        int r = a.length;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (a[m] > x) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        // A[l] > x, A[r] <= x, r = l + 1 -> r = min M
+        return r;
+    }
+
+    /*
+     * Elements are ordered by Double.compare: -0.0 < 0.0 and NaN is greater than +inf,
+     * so in a sorted array all NaNs come first
+     *
+     * Preconditions:
+     * - a != null
+     * - forall i < j: Double.compare(a[i], a[j]) >= 0
+     *
+     * Postcondition:
+     * - R = min { i | Double.compare(A[i], x) <= 0 }
+     */
+    public static int iterativeSearch(double x, double[] a) {
+        // Invariant: Double.compare(A[l], x) > 0 && Double.compare(A[r], x) <= 0
+        int l = -1;
+        int r = a.length;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (Double.compare(a[m], x) > 0) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - comparator != null
+     * - forall i < j: comparator.compare(a[i], a[j]) >= 0
+     *
+     * Postcondition:
+     * - R = min { i | comparator.compare(A[i], x) <= 0 }
+     */
+    public static int iterativeSearch(int x, int[] a, IntComparator comparator) {
+        // Invariant: comparator.compare(A[l], x) > 0 && comparator.compare(A[r], x) <= 0
+        int l = -1;
+        int r = a.length;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (comparator.compare(a[m], x) > 0) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - R = min M
+     */
+    public static int interpolationSearch(int x, int[] a) {
+        final int n = a.length;
+        if (n == 0 || a[0] <= x) {
+            // A[0] <= x or A[0] = A[n] = -inf -> min M = 0
+            return 0;
+        }
+        if (a[n - 1] > x) {
+            // sorted(a) -> forall i < n: A[i] > x -> min M = n
+            return n;
+        }
+
+        // Invariant: A[l] > x && A[r] <= x && 0 <= l < r < n
+        int l = 0;
+        int r = n - 1;
+        boolean interpolate = true;
+
+        // Interpolation and bisection steps alternate, so at most 2 * log(n) steps are made
+        // even if a is far from uniform
+        while (l + 1 != r) {
+            int m;
+            if (interpolate) {
+                // a[l] > x >= a[r] -> a[l] - a[r] > 0, and the product fits in long
+                m = (int) (l + (long) (r - l) * ((long) a[l] - x) / ((long) a[l] - a[r]));
+                m = Math.max(l + 1, Math.min(r - 1, m));
+            } else {
+                m = (l + r) / 2;
+            }
+            interpolate = !interpolate;
+            // l < m < r
+
+            if (a[m] > x) {
+                l = m;
+                // A[m] > x -> A[l'] > x
+            } else {
+                r = m;
+                // A[m] <= x -> A[r'] <= x
+            }
+        }
+
+        // A[l] > x, A[r] <= x, r = l + 1 -> r = min M
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - 0 <= hint <= n
+     *
+     * Postconditions:
+     * - R = min M
+     * - O(log |R - hint|) probes are made
+     */
+    public static int gallopingSearch(int x, int[] a, int hint) {
+        final int n = a.length;
+        int l;
+        int r;
+
+        if (hint < n && a[hint] > x) {
+            // Invariant: A[l] > x
+            l = hint;
+            int step = 1;
+            while (true) {
+                if (step >= n - l) {
+                    r = n;
+                    // A[n] = -inf <= x
+                    break;
+                }
+                r = l + step;
+                if (a[r] <= x) {
+                    break;
+                }
+                l = r;
+                step *= 2;
+            }
+        } else {
+            // Invariant: A[r] <= x
+            r = hint;
+            int step = 1;
+            while (true) {
+                if (step > r) {
+                    l = -1;
+                    // A[-1] = +inf > x
+                    break;
+                }
+                l = r - step;
+                if (a[l] > x) {
+                    break;
+                }
+                r = l;
+                step *= 2;
+            }
+        }
+
+        // -1 <= l < r <= n, A[l] > x, A[r] <= x -> R' = min M
+        return recursiveSearch(x, a, l, r);
+    }
+
+    /*
+     * Let: m = xs.length
+     *
+     * Preconditions:
+     * - xs != null
+     * - a != null
+     * - out != null
+     * - out.length >= m
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - forall j=0..m-1: out'[j] = min M(xs[j]), where M(x) = { i | A[i] <= x }
+     * - forall j=m..out.length-1: out'[j] = out[j]
+     */
+    public static void searchAll(int[] xs, int[] a, int[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("out.length = " + out.length + " < xs.length = " + xs.length);
+        }
+
+        final int n = a.length;
+        if (isMergeProfitable(xs.length, n)) {
+            if (isSorted(xs)) {
+                // sorted(xs) -> min M(xs[j]) is non-decreasing in j
+                mergeSearchDescending(xs, a, out);
+                return;
+            } else if (isSortedAscending(xs)) {
+                // xs is non-decreasing -> min M(xs[j]) is non-increasing in j
+                mergeSearchAscending(xs, a, out);
+                return;
+            }
+        }
+
+        Arrays.fill(out, 0, xs.length, 0);
+        if (n == 0) {
+            // M(x) = { 0 } for every x
+            return;
+        }
+
+        // Invariant: forall j: out[j] <= min M(xs[j]) <= out[j] + len
+        int len = n;
+
+        // The length sequence is the same for every key, so all searches advance in lock-step
+        // and their loads of a[out[j] + half] are independent of each other
+        while (len > 1) {
+            final int half = len / 2;
+            for (int j = 0; j < xs.length; j++) {
+                // A[out[j] + half] > xs[j] -> min M(xs[j]) > out[j] + half
+                // A[out[j] + half] <= xs[j] -> min M(xs[j]) <= out[j] + half
+                out[j] += a[out[j] + half] > xs[j] ? half : 0;
+            }
+            len -= half;
+        }
+
+        // len = 1 -> out[j] <= min M(xs[j]) <= out[j] + 1
+        for (int j = 0; j < xs.length; j++) {
+            out[j] += a[out[j]] > xs[j] ? 1 : 0;
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - m >= 0
+     * - n >= 0
+     *
+     * Postcondition:
+     * - R = true if a linear sweep over a (n + m probes) is not worse than m searches (m * log(n) probes)
+     */
+    private static boolean isMergeProfitable(int m, int n) {
+        return (long) m * (32 - Integer.numberOfLeadingZeros(n)) >= n;
+    }
+
+    /*
+     * Preconditions:
+     * - xs != null
+     *
+     * Postcondition:
+     * - R = sorted(xs)
+     */
+    private static boolean isSorted(int[] xs) {
+        for (int j = 1; j < xs.length; j++) {
+            if (xs[j - 1] < xs[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Preconditions:
+     * - xs != null
+     *
+     * Postcondition:
+     * - R = forall i < j: xs[i] <= xs[j]
+     */
+    private static boolean isSortedAscending(int[] xs) {
+        for (int j = 1; j < xs.length; j++) {
+            if (xs[j - 1] > xs[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Preconditions:
+     * - sorted(a)
+     * - sorted(xs)
+     * - out.length >= xs.length
+     *
+     * Postcondition:
+     * - forall j=0..m-1: out'[j] = min M(xs[j])
+     */
+    private static void mergeSearchDescending(int[] xs, int[] a, int[] out) {
+        // Invariant: forall k < i: A[k] > xs[j]
+        int i = 0;
+        for (int j = 0; j < xs.length; j++) {
+            while (i < a.length && a[i] > xs[j]) {
+                i++;
+            }
+            // A[i] <= xs[j] -> i = min M(xs[j])
+            // xs[j + 1] <= xs[j] -> forall k < i: A[k] > xs[j + 1]
+            out[j] = i;
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - sorted(a)
+     * - forall i < j: xs[i] <= xs[j]
+     * - out.length >= xs.length
+     *
+     * Postcondition:
+     * - forall j=0..m-1: out'[j] = min M(xs[j])
+     */
+    private static void mergeSearchAscending(int[] xs, int[] a, int[] out) {
+        // Invariant: forall k >= i: A[k] <= xs[j]
+        int i = a.length;
+        for (int j = 0; j < xs.length; j++) {
+            while (i > 0 && a[i - 1] <= xs[j]) {
+                i--;
+            }
+            // A[i - 1] > xs[j] -> i = min M(xs[j])
+            // xs[j + 1] >= xs[j] -> forall k >= i: A[k] <= xs[j + 1]
+            out[j] = i;
+        }
+    }
+
     /*
      * Let: x = Integer.parseInt(args[0])
      * Let: a = Integer.parseInt(args[1..args.length-1]
+     *  or the ints of standard input, if args[1] = "--stdin"
+     *  or the ints of text file args[2], if args[1] = "--input"
      *
      * Preconditions:
      * - args != null
      * - args.length > 0
      * - forall arg in args: arg != null && Integer.parseInt(arg) does not throw an exception
+     *   (or the input is whitespace-separated ints)
      * - sorted(a)
      *
      * Postconditions:
      * - prints min M to stdout
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         final int x = Integer.parseInt(args[0]);
-        final int[] a = new int[args.length - 1];
+        final int[] a;
         int remainder = 0;
 
-        // Invariant: remainder = (a[0] + a[1] + ... + a[i - 1]) % 2
-        for (int i = 0; i < a.length; i++) {
-            a[i] = Integer.parseInt(args[i + 1]);
-            remainder = (remainder + a[i] % 2) % 2;
-            // ((a[0] + ... + a[i - 1]) % 2 + a[i]) % 2 = (a[0] + ... + a[i]) % 2
+        if (args.length == 2 && "--stdin".equals(args[1]) || args.length == 3 && "--input".equals(args[1])) {
+            final IntLoader loader = args.length == 2 ? IntLoader.loadStdin() : IntLoader.load(Path.of(args[2]));
+            a = loader.toArray();
+            remainder = loader.parity();
+            // remainder = (a[0] + ... + a[n - 1]) mod 2
+        } else {
+            a = new int[args.length - 1];
+
+            // Invariant: remainder = (a[0] + a[1] + ... + a[i - 1]) % 2
+            for (int i = 0; i < a.length; i++) {
+                a[i] = Integer.parseInt(args[i + 1]);
+                remainder = (remainder + a[i] % 2) % 2;
+                // ((a[0] + ... + a[i - 1]) % 2 + a[i]) % 2 = (a[0] + ... + a[i]) % 2
+            }
         }
 
         final int result;
@@ -1,5 +1,10 @@
 package search;
 
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.function.IntUnaryOperator;
+
 public class BinarySearchUni {
     /*
      * Let: n = a.length
@@ -47,6 +52,91 @@ public class BinarySearchUni {
         return r;
     }
 
+    /*
+     * Preconditions:
+     * - a != null
+     * - n > 0
+     * - |M| > 0
+     *
+     * Postcondition:
+     * - R = I
+     */
+    public static int iterativeSearch(long[] a) {
+        // Invariant: A[l] <= A[l + 1], A[r] > A[r + 1]
+        int l = -1;
+        int r = a.length - 1;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (a[m] <= a[m + 1]) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        // l < I <= l + 1 = r
+        return r;
+    }
+
+    /*
+     * Elements are ordered by Double.compare: -0.0 < 0.0 and NaN is greater than +inf
+     *
+     * Preconditions:
+     * - a != null
+     * - n > 0
+     * - |M| > 0 with A[i] > A[j] meaning Double.compare(A[i], A[j]) > 0
+     *
+     * Postcondition:
+     * - R = I
+     */
+    public static int iterativeSearch(double[] a) {
+        // Invariant: Double.compare(A[l], A[l + 1]) <= 0, Double.compare(A[r], A[r + 1]) > 0
+        int l = -1;
+        int r = a.length - 1;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (Double.compare(a[m], a[m + 1]) <= 0) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - comparator != null
+     * - n > 0
+     * - |M| > 0 with A[i] > A[j] meaning comparator.compare(A[i], A[j]) > 0
+     *
+     * Postcondition:
+     * - R = I
+     */
+    public static int iterativeSearch(int[] a, IntComparator comparator) {
+        // Invariant: comparator.compare(A[l], A[l + 1]) <= 0, comparator.compare(A[r], A[r + 1]) > 0
+        int l = -1;
+        int r = a.length - 1;
+
+        while (l + 1 != r) {
+            final int m = (l + r) >>> 1;
+
+            if (comparator.compare(a[m], a[m + 1]) <= 0) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        return r;
+    }
+
     /*
      * Preconditions:
      * - a != null
@@ -115,24 +205,184 @@ public class BinarySearchUni {
     }
 
     /*
+     * Let: F:
+     * - F[lo - 1] = -inf
+     * - F[lo..hi] = f(lo..hi)
+     * - F[hi + 1] = -inf
+     *
+     * Let: P = { I | forall i=lo..I-1: F[i] > F[i - 1] && forall i=I..hi: F[i] > F[i + 1] }
+     *
+     * Preconditions:
+     * - f != null
+     * - lo <= hi
+     * - |P| > 0
+     *
+     * Postconditions:
+     * - R = min P
+     * - f is evaluated only at probed points, each at most once, O(log(hi - lo)) times
+     */
+    public static int peak(IntUnaryOperator f, int lo, int hi) {
+        final ProbeCache cache = new ProbeCache(f);
+
+        // Invariant: F[l] <= F[l + 1], F[r] > F[r + 1]
+        long l = lo - 1L;
+        long r = hi;
+
+        while (l + 1 != r) {
+            // l < m < r <= hi -> F[m] and F[m + 1] are values of f
+            final int m = (int) (l + (r - l) / 2);
+
+            if (cache.apply(m) <= cache.apply(m + 1)) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        // l < min P <= l + 1 = r
+        return (int) r;
+    }
+
+    /*
+     * Preconditions:
+     * - f != null
+     * - lo <= hi
+     * - |P| > 0
+     *
+     * Postconditions:
+     * - R = min P
+     * - f is evaluated once per step, ~log_phi(hi - lo) times
+     */
+    public static int goldenPeak(IntUnaryOperator f, int lo, int hi) {
+        final ProbeCache cache = new ProbeCache(f);
+
+        // Fibonacci numbers fib[k] with fib[1] = fib[2] = 1, until fib[k] >= hi - lo + 2
+        final long[] fib = new long[50];
+        fib[1] = fib[2] = 1;
+        int k = 2;
+        while (fib[k] < hi - lo + 2L) {
+            k++;
+            fib[k] = fib[k - 1] + fib[k - 2];
+        }
+
+        // F[i] = -inf for i > hi keeps F unimodal on the extended interval
+        // Invariant: r - l = fib[k] && min P in (l, r) && x1 = l + fib[k - 2] && x2 = l + fib[k - 1]
+        long l = lo - 1L;
+        long x1 = l + fib[k - 2];
+        long x2 = l + fib[k - 1];
+        long f1 = probe(cache, x1, hi);
+        long f2 = probe(cache, x2, hi);
+
+        while (k > 4) {
+            if (f1 < f2) {
+                // F[x1] < F[x2] -> min P in (x1, r)
+                l = x1;
+                x1 = x2;
+                f1 = f2;
+                k--;
+                x2 = l + fib[k - 1];
+                f2 = probe(cache, x2, hi);
+            } else {
+                // F[x1] > F[x2] or both are -inf -> min P in (l, x2)
+                x2 = x1;
+                f2 = f1;
+                k--;
+                x1 = l + fib[k - 2];
+                f1 = probe(cache, x1, hi);
+            }
+        }
+
+        // r - l <= 3 -> min P is the best of l + 1, l + 2
+        long best = l + 1;
+        if (l + 2 <= hi && probe(cache, l + 2, hi) > probe(cache, best, hi)) {
+            best = l + 2;
+        }
+        return (int) best;
+    }
+
+    /*
+     * Precondition: x > lo - 1
+     *
+     * Postcondition: R = F[x], with -inf = Long.MIN_VALUE
+     */
+    private static long probe(ProbeCache cache, long x, int hi) {
+        return x <= hi ? cache.apply((int) x) : Long.MIN_VALUE;
+    }
+
+    /*
+     * Let: n = a.size()
+     *
+     * Preconditions:
+     * - a != null
+     * - n > 0
+     * - |M| > 0
+     *
+     * Postconditions:
+     * - R = I
+     * - O(log n) elements of a are read, so only O(log n) pages of the mapping are touched
+     */
+    public static long iterativeSearch(MappedIntArray a) {
+        // Invariant: A[l] <= A[l + 1], A[r] > A[r + 1]
+        long l = -1;
+        long r = a.size() - 1;
+
+        while (l + 1 != r) {
+            final long m = (l + r) / 2;
+
+            if (a.get(m) <= a.get(m + 1)) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        // l < I <= l + 1 = r
+        return r;
+    }
+
+    /*
+     * Let: a = Integer.parseInt(args)
+     *  or the ints of standard input, if args[0] = "--stdin"
+     *  or the ints of text file args[1], if args[0] = "--input"
+     *  or the binary ints of file args[1], big-endian unless args[2] = "little", if args[0] = "--file"
+     *
      * Preconditions:
      * - args != null
      * - args.length > 0
      * - forall arg in args Integer.parseInt(arg) does not throw an exception
+     *   (or the input is whitespace-separated ints, or a binary file of ints)
+     * - n > 0
      * - |M| > 0
      *
      * Postcondition:
      * - prints I to stdin
      */
-    public static void main(String[] args) {
-        final int[] a = new int[args.length];
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && "--file".equals(args[0])) {
+            final ByteOrder order = args.length > 2 && "little".equals(args[2])
+                    ? ByteOrder.LITTLE_ENDIAN
+                    : ByteOrder.BIG_ENDIAN;
+            System.out.println(iterativeSearch(new MappedIntArray(Path.of(args[1]), order)));
+            return;
+        }
+
+        final int[] a;
         int remainder = 0;
 
-        // Invariant: remainder = (a[0] + a[1] + ... + a[i - 1]) % 2
-        for (int i = 0; i < a.length; i++) {
-            a[i] = Integer.parseInt(args[i]);
-            remainder = (remainder + a[i]) % 2;
-            // ((a[0] + ... + a[i - 1]) % 2 + a[i]) % 2 = (a[0] + ... + a[i]) % 2
+        if (args.length == 1 && "--stdin".equals(args[0]) || args.length == 2 && "--input".equals(args[0])) {
+            final IntLoader loader = args.length == 1 ? IntLoader.loadStdin() : IntLoader.load(Path.of(args[1]));
+            a = loader.toArray();
+            remainder = loader.parity();
+            // remainder = (a[0] + ... + a[n - 1]) mod 2
+        } else {
+            a = new int[args.length];
+
+            // Invariant: remainder = (a[0] + a[1] + ... + a[i - 1]) % 2
+            for (int i = 0; i < a.length; i++) {
+                a[i] = Integer.parseInt(args[i]);
+                remainder = (remainder + a[i]) % 2;
+                // ((a[0] + ... + a[i - 1]) % 2 + a[i]) % 2 = (a[0] + ... + a[i]) % 2
+            }
         }
 
         final int result;
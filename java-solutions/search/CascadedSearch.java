@@ -0,0 +1,126 @@
+package search;
+
+import java.util.List;
+
+public class CascadedSearch {
+    /*
+     * Let: k = arrays.size(), a_i = arrays.get(i), n_i = a_i.length
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: lb(x, a) = min { j | A[j] <= x }, where A[-1] = +inf, A[0..n-1] = a, A[n] = -inf
+     *
+     * Fractional cascading:
+     *  - merged[k - 1] = a_{k-1}
+     *  - merged[i] = a_i merged with merged[i + 1][0], merged[i + 1][2], merged[i + 1][4], ..., sorted
+     *  - own[i][q] = number of elements of a_i among merged[i][0..q-1]
+     *  - bridge[i][q] = number of elements taken from merged[i + 1] among merged[i][0..q-1]
+     *
+     * Since sorted(merged[i]): q = lb(x, merged[i]) -> merged[i][0..q-1] are exactly the elements > x, so
+     *  - lb(x, a_i) = own[i][q]
+     *  - s = bridge[i][q] = ceil(lb(x, merged[i + 1]) / 2) -> lb(x, merged[i + 1]) is 2s - 1 or 2s
+     */
+
+    private final int[][] merged;
+    private final int[][] own;
+    private final int[][] bridge;
+
+    /*
+     * Preconditions:
+     * - arrays != null
+     * - forall i: a_i != null && sorted(a_i)
+     *
+     * Postconditions:
+     * - arrays' = arrays
+     */
+    public CascadedSearch(List<int[]> arrays) {
+        final int k = arrays.size();
+        merged = new int[k][];
+        own = new int[k][];
+        bridge = new int[k][];
+
+        for (int i = k - 1; i >= 0; i--) {
+            final int[] a = arrays.get(i);
+            final int[] next = i + 1 < k ? merged[i + 1] : new int[0];
+            final int sampled = (next.length + 1) / 2;
+
+            final int[] m = new int[a.length + sampled];
+            final int[] o = new int[m.length + 1];
+            final int[] b = new int[m.length + 1];
+
+            // Invariant: m[0..p-1] = a[0..j-1] merged with next[0], next[2], ..., next[2 * (t - 1)]
+            int j = 0;
+            int t = 0;
+            for (int p = 0; p < m.length; p++) {
+                if (t == sampled || j < a.length && a[j] >= next[2 * t]) {
+                    m[p] = a[j++];
+                } else {
+                    m[p] = next[2 * t++];
+                }
+                o[p + 1] = j;
+                b[p + 1] = t;
+            }
+
+            merged[i] = m;
+            own[i] = o;
+            bridge[i] = b;
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - out != null
+     * - out.length >= k
+     *
+     * Postconditions:
+     * - forall i=0..k-1: out'[i] = lb(x, a_i) = BinarySearch.iterativeSearch(x, a_i)
+     * - O(log n_0 + k) probes are made
+     */
+    public void search(int x, int[] out) {
+        final int k = merged.length;
+        if (out.length < k) {
+            throw new IllegalArgumentException("out.length = " + out.length + " < " + k);
+        }
+        if (k == 0) {
+            return;
+        }
+
+        int q = BinarySearch.iterativeSearch(x, merged[0]);
+        for (int i = 0; i < k; i++) {
+            // q = lb(x, merged[i])
+            out[i] = own[i][q];
+
+            if (i + 1 < k) {
+                final int[] next = merged[i + 1];
+                final int s = bridge[i][q];
+                // lb(x, merged[i + 1]) is 2s - 1 or 2s
+                q = Math.max(0, 2 * s - 1);
+                if (q < next.length && next[q] > x) {
+                    q++;
+                }
+            }
+        }
+    }
+
+    /*
+     * Preconditions: true
+     *
+     * Postconditions:
+     * - R.length = k
+     * - forall i=0..k-1: R[i] = lb(x, a_i)
+     */
+    public int[] search(int x) {
+        final int[] result = new int[merged.length];
+        search(x, result);
+        return result;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = k
+     */
+    public int size() {
+        return merged.length;
+    }
+}
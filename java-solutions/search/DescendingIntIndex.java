@@ -0,0 +1,98 @@
+package search;
+
+public class DescendingIntIndex {
+    /*
+     * Let: n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M(x) = { i | A[i] <= x }
+     *
+     * Let: eytzinger(b, a): b[1..n] is a in BFS order of the implicit tree
+     *  with children 2k and 2k + 1, i.e. in-order traversal of b[1..n] gives a[0..n-1]
+     */
+
+    // Invariant: eytzinger(tree, a) && forall k=1..n: tree[k] = a[index[k]]
+    private final int[] tree;
+    private final int[] index;
+    private final int n;
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - eytzinger(tree, a)
+     * - a' = a
+     */
+    public DescendingIntIndex(int[] a) {
+        n = a.length;
+        tree = new int[n + 1];
+        index = new int[n + 1];
+        build(a, 0, 1);
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= i <= n
+     * - k >= 1
+     * - i = number of nodes preceding subtree k in in-order traversal
+     *
+     * Postconditions:
+     * - R = i + number of nodes in subtree k
+     * - subtree k of tree is filled with a[i..R-1] in order
+     */
+    private int build(int[] a, int i, int k) {
+        if (k <= n) {
+            i = build(a, i, 2 * k);
+            tree[k] = a[i];
+            index[k] = i;
+            i++;
+            i = build(a, i, 2 * k + 1);
+        }
+        return i;
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M(x)
+     * - R = BinarySearch.iterativeSearch(x, a)
+     */
+    public int search(int x) {
+        int k = 1;
+
+        // Invariant: every node on the path to k that was passed to the right is > x,
+        //  every node passed to the left is <= x
+        while (k <= n) {
+            // (x - tree[k]) < 0 <-> tree[k] > x, computed without a branch
+            k = 2 * k + (int) (((long) x - tree[k]) >>> 63);
+        }
+
+        // Drop the trailing right turns and the final left turn:
+        //  the remaining k is the last node passed to the left, i.e. min { i | a[i] <= x }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+
+        // k = 0 <-> the path never turned left <-> forall i: a[i] > x -> min M(x) = n
+        return k == 0 ? n : index[k];
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = n
+     */
+    public int size() {
+        return n;
+    }
+}
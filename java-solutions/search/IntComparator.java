@@ -0,0 +1,13 @@
+package search;
+
+@FunctionalInterface
+public interface IntComparator {
+    /*
+     * Preconditions: true
+     *
+     * Postconditions:
+     * - R < 0 if a precedes b, R = 0 if a and b are equivalent, R > 0 if b precedes a
+     * - compare is a total preorder on int
+     */
+    int compare(int a, int b);
+}
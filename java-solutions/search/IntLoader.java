@@ -0,0 +1,160 @@
+package search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class IntLoader {
+    /*
+     * Model: a[0..n-1], whitespace-separated decimal ints read from a channel
+     *
+     * Invariant:
+     * - values.length >= n && forall i=0..n-1: values[i] = a[i]
+     * - parity = (a[0] + ... + a[n-1]) mod 2, in { 0, 1 }
+     */
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private int[] values = new int[16];
+    private int size;
+    private int parity;
+
+    private IntLoader() {
+    }
+
+    /*
+     * Preconditions:
+     * - channel != null
+     * - the rest of channel is whitespace-separated decimal ints that Integer.parseInt accepts
+     *
+     * Postconditions:
+     * - R.a = ints of the rest of the channel
+     * - channel is read to the end, with no allocation per number
+     */
+    public static IntLoader load(ReadableByteChannel channel) throws IOException {
+        final IntLoader loader = new IntLoader();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        // Invariant: inNumber -> value = -(digits read so far), negative accumulation covers Integer.MIN_VALUE
+        boolean inNumber = false;
+        boolean negative = false;
+        boolean hasDigits = false;
+        int value = 0;
+
+        while (channel.read(buffer.clear()) >= 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                final byte c = buffer.get();
+                if (c >= '0' && c <= '9') {
+                    final int digit = c - '0';
+                    if (value < (Integer.MIN_VALUE + digit) / 10) {
+                        throw new NumberFormatException("Number out of int range at element " + loader.size);
+                    }
+                    value = value * 10 - digit;
+                    inNumber = hasDigits = true;
+                } else if (c == '-' && !inNumber) {
+                    negative = inNumber = true;
+                } else if (c == '+' && !inNumber) {
+                    // An optional sign, as Integer.parseInt accepts on the command line
+                    inNumber = true;
+                } else if (Character.isWhitespace(c)) {
+                    if (inNumber) {
+                        loader.add(finish(value, negative, hasDigits, loader.size));
+                        inNumber = negative = hasDigits = false;
+                        value = 0;
+                    }
+                } else {
+                    throw new NumberFormatException("Unexpected character '" + (char) c + "' at element " + loader.size);
+                }
+            }
+        }
+        if (inNumber) {
+            loader.add(finish(value, negative, hasDigits, loader.size));
+        }
+
+        return loader;
+    }
+
+    /*
+     * Preconditions:
+     * - path != null
+     * - file at path is whitespace-separated decimal ints
+     *
+     * Postcondition:
+     * - R.a = ints of the file
+     */
+    public static IntLoader load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return load(channel);
+        }
+    }
+
+    /*
+     * Preconditions:
+     * - standard input is whitespace-separated decimal ints
+     *
+     * Postcondition:
+     * - R.a = ints of standard input
+     */
+    public static IntLoader loadStdin() throws IOException {
+        return load(Channels.newChannel(System.in));
+    }
+
+    private static int finish(int value, boolean negative, boolean hasDigits, int index) {
+        if (!hasDigits) {
+            throw new NumberFormatException("Sign without digits at element " + index);
+        }
+        if (!negative && value == Integer.MIN_VALUE) {
+            throw new NumberFormatException("Number out of int range at element " + index);
+        }
+        return negative ? value : -value;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a'[n] = value
+     * - parity' = (parity + value) mod 2
+     */
+    private void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+        parity ^= value & 1;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = a
+     */
+    public int[] toArray() {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = n
+     */
+    public int size() {
+        return size;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = (a[0] + ... + a[n-1]) mod 2
+     */
+    public int parity() {
+        return parity;
+    }
+}
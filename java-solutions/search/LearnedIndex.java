@@ -0,0 +1,163 @@
+package search;
+
+import java.util.Arrays;
+
+public class LearnedIndex {
+    /*
+     * Let: n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M = { i | A[i] <= x }
+     *
+     * Model: piecewise-linear map from a key to its position,
+     *  segment j covers keys in (firstKeys[j + 1], firstKeys[j]] and predicts
+     *  pos(x) = firstPositions[j] + slopes[j] * (firstKeys[j] - x)
+     *
+     * Invariant: forall i: i = min { i' | a[i'] = a[i] } -> |pos(a[i]) - i| <= maxError
+     */
+
+    private final int[] a;
+    private final int maxError;
+    private final int[] firstKeys;
+    private final int[] firstPositions;
+    private final double[] slopes;
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - maxError >= 0
+     *
+     * Postconditions:
+     * - a' = a
+     */
+    public LearnedIndex(int[] a, int maxError) {
+        if (maxError < 0) {
+            throw new IllegalArgumentException("maxError = " + maxError + " < 0");
+        }
+        this.a = a;
+        this.maxError = maxError;
+
+        final int n = a.length;
+        final int[] keys = new int[n];
+        final int[] positions = new int[n];
+        final double[] segmentSlopes = new double[n];
+        int segments = 0;
+
+        // Shrinking cone: every slope in [lo, hi] keeps all points of the current segment within maxError
+        double lo = 0;
+        double hi = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && a[i] == a[i - 1]) {
+                // Only the first occurrence of each key is a point of the model
+                continue;
+            }
+
+            if (segments > 0) {
+                final int j = segments - 1;
+                final double dx = (double) keys[j] - a[i];
+                final double newLo = Math.max(lo, (i - maxError - positions[j]) / dx);
+                final double newHi = Math.min(hi, (i + maxError - positions[j]) / dx);
+                if (newLo <= newHi) {
+                    lo = newLo;
+                    hi = newHi;
+                    continue;
+                }
+                segmentSlopes[j] = slope(lo, hi);
+            }
+
+            keys[segments] = a[i];
+            positions[segments] = i;
+            segments++;
+            lo = 0;
+            hi = Double.POSITIVE_INFINITY;
+        }
+        if (segments > 0) {
+            segmentSlopes[segments - 1] = slope(lo, hi);
+        }
+
+        firstKeys = Arrays.copyOf(keys, segments);
+        firstPositions = Arrays.copyOf(positions, segments);
+        slopes = Arrays.copyOf(segmentSlopes, segments);
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= lo <= hi
+     *
+     * Postcondition:
+     * - lo <= R <= hi
+     */
+    private static double slope(double lo, double hi) {
+        // A single-point segment has an unbounded cone
+        return Double.isInfinite(hi) ? lo : (lo + hi) / 2;
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M
+     * - R = BinarySearch.iterativeSearch(x, a)
+     */
+    public int search(int x) {
+        final int n = a.length;
+
+        // sorted(firstKeys) -> j = max { j | firstKeys[j] >= x }
+        final int j = (x == Integer.MIN_VALUE ? firstKeys.length : BinarySearch.iterativeSearch(x - 1, firstKeys)) - 1;
+        if (j < 0) {
+            // forall i: a[i] < x -> min M = 0
+            return 0;
+        }
+
+        final double predicted = firstPositions[j] + slopes[j] * ((double) firstKeys[j] - x);
+        final int position = (int) Math.max(0, Math.min(n, Math.round(predicted)));
+
+        // Invariant: A[l] > x && A[r] <= x
+        int l = Math.max(-1, position - maxError - 1);
+        int r = Math.min(n, position + maxError + 1);
+        if (l >= 0 && a[l] <= x || r < n && a[r] > x) {
+            // x falls between keys that are far apart in a, outside the guaranteed window
+            return BinarySearch.gallopingSearch(x, a, position);
+        }
+
+        while (l + 1 != r) {
+            final int m = (l + r) / 2;
+
+            if (a[m] > x) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+
+        // A[l] > x, A[r] <= x, r = l + 1 -> r = min M
+        return r;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = number of linear segments
+     */
+    public int segments() {
+        return firstKeys.length;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = approximate heap size of the model in bytes, not counting a itself
+     */
+    public long memoryOverhead() {
+        // Three arrays with 16-byte headers: two int[] and one double[] per segment
+        return 3 * 16 + (long) firstKeys.length * (Integer.BYTES + Integer.BYTES + Double.BYTES);
+    }
+}
@@ -0,0 +1,106 @@
+package search;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+public class MappedBinarySearch {
+    /*
+     * Let: n = a.size()
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M = { i | A[i] <= x }
+     */
+
+    // Up to 2^16 elements (256 KiB) of the upper levels of the bisection are kept on heap
+    private static final int CACHE_SIZE = 1 << 16;
+
+    // Invariant:
+    // - s = sample.length = ceil(n / stride)
+    // - forall j=0..s-1: sample[j] = a[j * stride]
+    private final MappedIntArray a;
+    private final long stride;
+    private final int[] sample;
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postcondition:
+     * - a' = a
+     */
+    public MappedBinarySearch(MappedIntArray a) {
+        this.a = a;
+
+        final long n = a.size();
+        stride = Math.max(1, (n + CACHE_SIZE - 1) / CACHE_SIZE);
+        sample = new int[(int) ((n + stride - 1) / stride)];
+        for (int j = 0; j < sample.length; j++) {
+            sample[j] = a.get(j * stride);
+        }
+        // sorted(a) -> sorted(sample)
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M
+     */
+    public long search(int x) {
+        // sorted(sample) -> j = min { j | sample[j] <= x }
+        final int j = BinarySearch.iterativeSearch(x, sample);
+
+        // Invariant: A[l] > x && A[r] <= x
+        long l = j == 0 ? -1 : (j - 1) * stride;
+        long r = j == sample.length ? a.size() : j * stride;
+        // j > 0 -> A[l] = sample[j - 1] > x, j = 0 -> A[l] = A[-1] = +inf > x
+        // j < s -> A[r] = sample[j] <= x, j = s -> A[r] = A[n] = -inf <= x
+
+        while (l + 1 != r) {
+            final long m = (l + r) >>> 1;
+
+            if (a.get(m) > x) {
+                l = m;
+                // A[m] > x -> A[l'] > x
+            } else {
+                r = m;
+                // A[m] <= x -> A[r'] <= x
+            }
+        }
+
+        // A[l] > x, sorted(a) -> forall i <= l: i not in M
+        // r in M, r = l + 1 -> r = min M
+        return r;
+    }
+
+    /*
+     * Let: x = Integer.parseInt(args[0])
+     * Let: a = ints of file args[1], big-endian unless args[2] = "little"
+     *
+     * Preconditions:
+     * - args != null
+     * - args.length >= 2
+     * - Integer.parseInt(args[0]) does not throw an exception
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - prints min M to stdout
+     */
+    public static void main(String[] args) throws IOException {
+        final int x = Integer.parseInt(args[0]);
+        final ByteOrder order = args.length > 2 && "little".equals(args[2])
+                ? ByteOrder.LITTLE_ENDIAN
+                : ByteOrder.BIG_ENDIAN;
+
+        System.out.println(new MappedBinarySearch(new MappedIntArray(Path.of(args[1]), order)).search(x));
+    }
+}
@@ -0,0 +1,72 @@
+package search;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedIntArray {
+    /*
+     * Model: a[0..n-1], the ints of a file in the given byte order
+     *
+     * Invariant: forall i=0..n-1: a[i] = chunks[i >> CHUNK_BITS].get(i & CHUNK_MASK)
+     */
+
+    // A single mapping is limited to 2^31 - 1 bytes, so the file is mapped in 1 GiB chunks
+    private static final int CHUNK_BITS = 28;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final IntBuffer[] chunks;
+    private final long n;
+
+    /*
+     * Preconditions:
+     * - path != null
+     * - order != null
+     * - file at path exists, is readable and its size is a multiple of Integer.BYTES
+     *
+     * Postconditions:
+     * - n = size of the file / Integer.BYTES
+     * - a = contents of the file
+     */
+    public MappedIntArray(Path path, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long bytes = channel.size();
+            if (bytes % Integer.BYTES != 0) {
+                throw new IllegalArgumentException(path + ": size " + bytes + " is not a multiple of " + Integer.BYTES);
+            }
+
+            n = bytes / Integer.BYTES;
+            chunks = new IntBuffer[(int) ((n + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                final long first = (long) c << CHUNK_BITS;
+                final long length = Math.min(CHUNK_MASK + 1, n - first);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, first * Integer.BYTES, length * Integer.BYTES)
+                        .order(order)
+                        .asIntBuffer();
+            }
+        }
+    }
+
+    /*
+     * Precondition:
+     * - 0 <= i < n
+     *
+     * Postcondition:
+     * - R = a[i]
+     */
+    public int get(long i) {
+        return chunks[(int) (i >>> CHUNK_BITS)].get((int) (i & CHUNK_MASK));
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = n
+     */
+    public long size() {
+        return n;
+    }
+}
@@ -0,0 +1,348 @@
+package search;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+public class PackedMemoryArray {
+    /*
+     * Model: a[0..n-1], sorted: forall i < j: a[i] >= a[j]
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: M = { i | A[i] <= x }
+     *
+     * Storage: values[0..C-1] split into C / S segments of S slots
+     *  - segment s holds counts[s] elements of a packed at its start, in order
+     *  - the remaining slots of segment s (gaps) repeat its last element, so values is sorted as well
+     *  - n > 0 -> forall s: counts[s] > 0
+     *  - fenwick is a Fenwick tree over counts
+     *
+     * Window at level l: 2^l aligned segments; its density must stay within [lower(l), upper(l)],
+     * thresholds tighten from the leaves (l = 0) to the root (l = h), which gives O(log^2 n) amortized moves
+     */
+
+    private static final int S = 16;
+
+    private static final class Storage {
+        private final int[] values;
+        private final int[] counts;
+        private final int[] fenwick;
+
+        private Storage(int capacity) {
+            values = new int[capacity];
+            counts = new int[capacity / S];
+            fenwick = new int[capacity / S + 1];
+        }
+
+        /*
+         * Postcondition: R = counts[0] + ... + counts[s - 1]
+         */
+        private int prefix(int s) {
+            int sum = 0;
+            for (int i = Math.min(s, fenwick.length - 1); i > 0; i -= i & -i) {
+                sum += fenwick[i];
+            }
+            return sum;
+        }
+
+        /*
+         * Postcondition: counts'[s] = counts[s] + delta, fenwick updated
+         */
+        private void add(int s, int delta) {
+            counts[s] += delta;
+            for (int i = s + 1; i < fenwick.length; i += i & -i) {
+                fenwick[i] += delta;
+            }
+        }
+
+        /*
+         * Postcondition: gaps of segment s repeat its last element
+         */
+        private void fillGaps(int s) {
+            final int base = s * S;
+            if (counts[s] > 0) {
+                Arrays.fill(values, base + counts[s], base + S, values[base + counts[s] - 1]);
+            }
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Storage storage = new Storage(S);
+    private int n;
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: n = 0
+     */
+    public PackedMemoryArray() {
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postcondition: this.a = a
+     */
+    public PackedMemoryArray(int[] a) {
+        n = a.length;
+        storage = distribute(a, n);
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M
+     * - R = BinarySearch.iterativeSearch(x, a)
+     * - does not block while no writer is active
+     */
+    public int search(int x) {
+        long stamp = lock.tryOptimisticRead();
+        int result = search(storage, x);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = search(storage, x);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Precondition: true (under a concurrent write the result is arbitrary but all accesses stay in bounds)
+     *
+     * Postcondition: R = min M
+     */
+    private static int search(Storage storage, int x) {
+        final int r = firstAtMost(storage, x);
+
+        // r is an element (a gap repeats an earlier element, which would be <= x too) or r = C
+        // -> min M = number of elements stored before slot r
+        if (r == storage.values.length) {
+            return storage.prefix(storage.counts.length);
+        }
+        final int s = r / S;
+        return storage.prefix(s) + Math.min(r % S, storage.counts[s]);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - n' = n + 1
+     * - a' = a with x inserted in sorted position
+     */
+    public void insert(int x) {
+        final long stamp = lock.writeLock();
+        try {
+            final Storage st = storage;
+            final int slot = firstAtMost(st, x);
+            final int s = Math.min(slot, st.values.length - 1) / S;
+
+            if (st.counts[s] < S) {
+                insertIntoSegment(st, s, x);
+            } else {
+                rebalanceFor(s, x, true);
+            }
+            n++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - if x in a: R = true, one occurrence of x is removed, n' = n - 1
+     * - else: R = false, a' = a
+     */
+    public boolean remove(int x) {
+        final long stamp = lock.writeLock();
+        try {
+            final Storage st = storage;
+            final int slot = firstAtMost(st, x);
+            if (n == 0 || slot == st.values.length || st.values[slot] != x) {
+                return false;
+            }
+
+            final int s = slot / S;
+            final int base = s * S;
+            System.arraycopy(st.values, slot + 1, st.values, slot, base + st.counts[s] - slot - 1);
+            st.add(s, -1);
+            st.fillGaps(s);
+            n--;
+
+            if (st.values.length > S && n < st.values.length / 4) {
+                resize(false, 0);
+            } else if (st.counts[s] == 0 && n > 0) {
+                rebalanceFor(s, 0, false);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /*
+     * Postcondition: R = min { slot | values[slot] <= x }, or C
+     */
+    private static int firstAtMost(Storage st, int x) {
+        // Invariant: values[l] > x && values[r] <= x, with values[-1] = +inf, values[C] = -inf
+        int l = -1;
+        int r = st.values.length;
+        while (l + 1 != r) {
+            final int m = (l + r) / 2;
+            if (st.values[m] > x) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+        return r;
+    }
+
+    /*
+     * Precondition: counts[s] < S, x fits between segment s - 1 and segment s + 1
+     *
+     * Postcondition: x is inserted into segment s in sorted position
+     */
+    private static void insertIntoSegment(Storage st, int s, int x) {
+        final int base = s * S;
+        final int count = st.counts[s];
+        int o = 0;
+        while (o < count && st.values[base + o] > x) {
+            o++;
+        }
+        System.arraycopy(st.values, base + o, st.values, base + o + 1, count - o);
+        st.values[base + o] = x;
+        st.add(s, 1);
+        st.fillGaps(s);
+    }
+
+    /*
+     * Preconditions:
+     * - insert -> counts[s] = S and x fits into segment s
+     * - !insert -> counts[s] = 0
+     *
+     * Postcondition: the smallest window around s whose density allows it is redistributed evenly
+     * (with x inserted if insert), or the whole array is resized
+     */
+    private void rebalanceFor(int s, int x, boolean insert) {
+        final Storage st = storage;
+        final int segments = st.counts.length;
+        final int h = Integer.numberOfTrailingZeros(segments);
+
+        for (int l = 1; l <= h; l++) {
+            final int width = 1 << l;
+            final int first = s & -width;
+            final int total = st.prefix(first + width) - st.prefix(first) + (insert ? 1 : 0);
+            final double capacity = (double) width * S;
+            final double upper = 1 - 0.5 * l / h;
+            final double lower = 1.0 / S + (0.25 - 1.0 / S) * l / h;
+
+            if (insert ? total <= upper * capacity : total >= lower * capacity) {
+                final int[] window = collect(st, first, width, total, insert, x);
+                spread(st, window, total, first, width);
+                return;
+            }
+        }
+        resize(insert, x);
+    }
+
+    /*
+     * Postcondition: R[0..total-1] = elements of segments first..first+width-1, with x merged in if insert
+     */
+    private static int[] collect(Storage st, int first, int width, int total, boolean insert, int x) {
+        final int[] window = new int[total];
+        int k = 0;
+        boolean pending = insert;
+        for (int s = first; s < first + width; s++) {
+            final int base = s * S;
+            for (int o = 0; o < st.counts[s]; o++) {
+                if (pending && st.values[base + o] <= x) {
+                    window[k++] = x;
+                    pending = false;
+                }
+                window[k++] = st.values[base + o];
+            }
+        }
+        if (pending) {
+            window[k] = x;
+        }
+        return window;
+    }
+
+    /*
+     * Precondition: sorted(window[0..total-1])
+     *
+     * Postcondition: segments first..first+width-1 hold window, their counts differ by at most 1
+     */
+    private static void spread(Storage st, int[] window, int total, int first, int width) {
+        int k = 0;
+        for (int i = 0; i < width; i++) {
+            final int s = first + i;
+            final int count = total / width + (i < total % width ? 1 : 0);
+            System.arraycopy(window, k, st.values, s * S, count);
+            k += count;
+            st.add(s, count - st.counts[s]);
+            st.fillGaps(s);
+        }
+    }
+
+    /*
+     * Postcondition: storage is rebuilt from a (with x merged in if insert), density in [1/4, 1/2)
+     */
+    private void resize(boolean insert, int x) {
+        final Storage st = storage;
+        final int[] all = collect(st, 0, st.counts.length, n + (insert ? 1 : 0), insert, x);
+        storage = distribute(all, all.length);
+    }
+
+    /*
+     * Precondition: sorted(a[0..size-1])
+     *
+     * Postcondition: R holds a[0..size-1] evenly spread over the smallest power-of-two capacity with density < 1/2
+     */
+    private static Storage distribute(int[] a, int size) {
+        final Storage st = new Storage(Math.max(S, 4 * Integer.highestOneBit(size)));
+        spread(st, a, size, 0, st.counts.length);
+        return st;
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = n
+     */
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return n;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = a
+     */
+    public int[] toArray() {
+        final long stamp = lock.readLock();
+        try {
+            return collect(storage, 0, storage.counts.length, n, false, 0);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
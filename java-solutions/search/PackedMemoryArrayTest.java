@@ -0,0 +1,128 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PackedMemoryArrayTest {
+    private static int[] toArray(List<Integer> list) {
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    // Inserts into and removes from a sorted list in step with the array, which exercises every rebalancing level
+    private static void testRandomUpdates() {
+        final Random random = new Random(1414);
+        final PackedMemoryArray pma = new PackedMemoryArray();
+        final List<Integer> expected = new ArrayList<>();
+
+        for (int step = 0; step < 40_000; step++) {
+            // Mostly inserts in the first half, mostly removals in the second, so the array grows and shrinks
+            final boolean insert = random.nextInt(100) < (step < 20_000 ? 70 : 30);
+            final int x = random.nextInt(2_000) - 1_000;
+
+            if (insert) {
+                pma.insert(x);
+                int position = 0;
+                while (position < expected.size() && expected.get(position) > x) {
+                    position++;
+                }
+                expected.add(position, x);
+            } else {
+                final boolean removed = pma.remove(x);
+                if (removed != expected.remove((Integer) x)) {
+                    System.out.println("remove(" + x + ") returned " + removed + " at step " + step);
+                    return;
+                }
+            }
+
+            if (pma.size() != expected.size()) {
+                System.out.println("size() = " + pma.size() + ", expected " + expected.size() + " at step " + step);
+                return;
+            }
+            if (step % 97 == 0) {
+                final int[] a = toArray(expected);
+                if (!Arrays.equals(pma.toArray(), a)) {
+                    System.out.println("toArray() differs from the sorted list at step " + step);
+                    return;
+                }
+                for (int key = -1_002; key <= 1_002; key += 7) {
+                    if (pma.search(key) != BinarySearch.iterativeSearch(key, a)) {
+                        System.out.println("search(" + key + ") = " + pma.search(key)
+                                + ", expected " + BinarySearch.iterativeSearch(key, a) + " at step " + step);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void testFromArray() {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            list.add(i / 3);
+        }
+        list.sort(Collections.reverseOrder());
+        final int[] a = toArray(list);
+
+        final PackedMemoryArray pma = new PackedMemoryArray(a);
+        for (int key = -2; key <= 340; key++) {
+            if (pma.search(key) != BinarySearch.iterativeSearch(key, a)) {
+                System.out.println("search(" + key + ") over a prebuilt array = " + pma.search(key)
+                        + ", expected " + BinarySearch.iterativeSearch(key, a));
+                return;
+            }
+        }
+    }
+
+    // The writer only inserts and removes keys below the probe, so min M of the probe never changes;
+    // optimistic reads racing the writer (and its resizes) must still return it
+    private static void testOptimisticReads() throws InterruptedException {
+        final int probe = 0;
+        final int above = 500;
+        final int[] initial = new int[above];
+        for (int i = 0; i < above; i++) {
+            initial[i] = 2 * (above - i);
+        }
+        final PackedMemoryArray pma = new PackedMemoryArray(initial);
+        final int[] wrong = {0};
+
+        final Thread writer = new Thread(() -> {
+            final Random random = new Random(1415);
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 2_000; i++) {
+                    pma.insert(-1 - random.nextInt(1_000));
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    pma.remove(-1 - random.nextInt(1_000));
+                }
+            }
+        });
+        final Thread reader = new Thread(() -> {
+            while (writer.isAlive()) {
+                if (pma.search(probe) != above) {
+                    wrong[0]++;
+                }
+            }
+        });
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        if (wrong[0] != 0) {
+            System.out.println(wrong[0] + " searches racing the writer returned a wrong position");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        testRandomUpdates();
+        testFromArray();
+        testOptimisticReads();
+    }
+}
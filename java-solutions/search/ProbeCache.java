@@ -0,0 +1,46 @@
+package search;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+class ProbeCache {
+    /*
+     * Model: f, a memoized function int -> int
+     *
+     * Invariant: forall j: keys[j] != EMPTY -> values[j] = f((int) keys[j])
+     */
+
+    private static final int SIZE = 64;
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    private final IntUnaryOperator f;
+    private final long[] keys = new long[SIZE];
+    private final int[] values = new int[SIZE];
+
+    /*
+     * Precondition: f != null
+     *
+     * Postcondition: the cache is empty
+     */
+    ProbeCache(IntUnaryOperator f) {
+        this.f = f;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postconditions:
+     * - R = f(x)
+     * - f is evaluated at most once for x while x stays in the cache
+     */
+    int apply(int x) {
+        // Direct-mapped: a colliding probe evicts the previous one
+        final int slot = (x ^ (x >>> 16)) & (SIZE - 1);
+        if (keys[slot] != x) {
+            values[slot] = f.applyAsInt(x);
+            keys[slot] = x;
+        }
+        return values[slot];
+    }
+}
@@ -0,0 +1,205 @@
+package search;
+
+import java.util.function.IntConsumer;
+
+public class RangeSearch {
+    /*
+     * Let: n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: start(hi) = min { i | A[i] <= hi }
+     * Let: end(lo) = min { i | A[i] < lo }
+     * Let: range(lo, hi) = { i | lo <= a[i] <= hi }
+     *
+     * sorted(a) && lo <= hi -> range(lo, hi) = [start(hi), end(lo))
+     */
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - R.length = 2
+     * - lo <= hi -> R[0] = start(hi), R[1] = end(lo)
+     * - lo > hi -> R[0] = R[1] = start(hi)
+     * - range(lo, hi) = [R[0], R[1])
+     */
+    public static int[] rangeBounds(int lo, int hi, int[] a) {
+        final int[] bounds = new int[2];
+        rangeBounds(lo, hi, a, bounds, 0);
+        return bounds;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - out != null
+     * - 0 <= pos && pos + 1 < out.length
+     *
+     * Postconditions:
+     * - range(lo, hi) = [out'[pos], out'[pos + 1])
+     * - forall other i: out'[i] = out[i]
+     */
+    private static void rangeBounds(int lo, int hi, int[] a, int[] out, int pos) {
+        if (lo > hi) {
+            out[pos] = out[pos + 1] = BinarySearch.iterativeSearch(hi, a);
+            return;
+        }
+
+        // Invariant: A[l] > hi && A[r] < lo
+        // hi >= lo -> both descents agree while l and r satisfy it
+        int l = -1;
+        int r = a.length;
+
+        while (l + 1 != r) {
+            final int m = (l + r) / 2;
+
+            if (a[m] > hi) {
+                // A[m] > hi -> start(hi) > m && end(lo) > m
+                l = m;
+            } else if (a[m] < lo) {
+                // A[m] < lo <= hi -> start(hi) <= m && end(lo) <= m
+                r = m;
+            } else {
+                // lo <= A[m] <= hi -> start(hi) in (l, m], end(lo) in (m, r]: the paths split here
+                out[pos] = startSearch(hi, a, l, m);
+                out[pos + 1] = endSearch(lo, a, m, r);
+                return;
+            }
+        }
+
+        // A[l] > hi, A[r] < lo, r = l + 1 -> start(hi) = end(lo) = r
+        out[pos] = out[pos + 1] = r;
+    }
+
+    /*
+     * Preconditions:
+     * - sorted(a)
+     * - -1 <= l < r <= n
+     * - A[l] > hi && A[r] <= hi
+     *
+     * Postcondition:
+     * - R = start(hi)
+     */
+    private static int startSearch(int hi, int[] a, int l, int r) {
+        while (l + 1 != r) {
+            final int m = (l + r) / 2;
+
+            if (a[m] > hi) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - sorted(a)
+     * - -1 <= l < r <= n
+     * - A[l] >= lo && A[r] < lo
+     *
+     * Postcondition:
+     * - R = end(lo)
+     */
+    private static int endSearch(int lo, int[] a, int l, int r) {
+        while (l + 1 != r) {
+            final int m = (l + r) / 2;
+
+            if (a[m] >= lo) {
+                l = m;
+            } else {
+                r = m;
+            }
+        }
+        return r;
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postcondition:
+     * - R = |range(lo, hi)|
+     */
+    public static int countInRange(int lo, int hi, int[] a) {
+        final int[] bounds = rangeBounds(lo, hi, a);
+        return bounds[1] - bounds[0];
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - action != null
+     *
+     * Postcondition:
+     * - action is called with a[i] for every i in range(lo, hi), in increasing order of i
+     */
+    public static void forEachInRange(int lo, int hi, int[] a, IntConsumer action) {
+        final int[] bounds = rangeBounds(lo, hi, a);
+        for (int i = bounds[0]; i < bounds[1]; i++) {
+            action.accept(a[i]);
+        }
+    }
+
+    /*
+     * Let: k = los.length
+     *
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - los != null && his != null && out != null
+     * - his.length = k
+     * - out.length >= 2 * k
+     *
+     * Postconditions:
+     * - forall j=0..k-1: range(los[j], his[j]) = [out'[2 * j], out'[2 * j + 1])
+     */
+    public static void rangeBoundsAll(int[] los, int[] his, int[] a, int[] out) {
+        if (his.length != los.length || out.length < 2 * los.length) {
+            throw new IllegalArgumentException("Expected " + los.length + " upper bounds and "
+                    + 2 * los.length + " output slots, found " + his.length + " and " + out.length);
+        }
+
+        for (int j = 0; j < los.length; j++) {
+            rangeBounds(los[j], his[j], a, out, 2 * j);
+        }
+    }
+
+    /*
+     * Let: k = los.length
+     *
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - los != null && his != null && out != null
+     * - his.length = k
+     * - out.length >= k
+     *
+     * Postconditions:
+     * - forall j=0..k-1: out'[j] = |range(los[j], his[j])|
+     */
+    public static void countInRangeAll(int[] los, int[] his, int[] a, int[] out) {
+        if (his.length != los.length || out.length < los.length) {
+            throw new IllegalArgumentException("Expected " + los.length + " upper bounds and "
+                    + los.length + " output slots, found " + his.length + " and " + out.length);
+        }
+
+        final int[] bounds = new int[2];
+        for (int j = 0; j < los.length; j++) {
+            rangeBounds(los[j], his[j], a, bounds, 0);
+            out[j] = bounds[1] - bounds[0];
+        }
+    }
+}
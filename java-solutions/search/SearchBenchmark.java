@@ -0,0 +1,200 @@
+package search;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+public class SearchBenchmark {
+    /*
+     * Measures ns/op and allocated bytes/op of the search implementations over
+     * array sizes from L1-resident to out-of-cache, for several key distributions.
+     *
+     * Usage: SearchBenchmark [size...], sizes default to 2^10, 2^14, 2^18, 2^22, 2^24
+     */
+
+    private enum Distribution {
+        // keys present in the array
+        HITS,
+        // keys between two adjacent array elements
+        MISSES,
+        // keys at or beyond the first and the last element
+        EDGES
+    }
+
+    private static final int KEYS = 1 << 16;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps results alive so the searches are not eliminated
+    private static long sink;
+
+    public static void main(String[] args) {
+        final int[] sizes = args.length > 0
+                ? parseSizes(args)
+                : new int[]{1 << 10, 1 << 14, 1 << 18, 1 << 22, 1 << 24};
+
+        System.out.printf("%-12s %-10s %-8s %12s %12s%n", "search", "size", "keys", "ns/op", "B/op");
+        for (final int size : sizes) {
+            final int[] a = descending(size);
+            final int[] peaked = bitonic(size);
+            final DescendingIntIndex eytzinger = new DescendingIntIndex(a);
+            final StaticSearchTree tree = new StaticSearchTree(a);
+
+            for (final Distribution distribution : Distribution.values()) {
+                final int[] keys = keys(a, distribution);
+                // All four return min M for the same keys, so their checksums must agree
+                final long expected = run("iterative", size, distribution, keys, k -> iterative(k, a));
+                verify("recursive", expected, run("recursive", size, distribution, keys, k -> recursive(k, a)));
+                verify("eytzinger", expected, run("eytzinger", size, distribution, keys, k -> eytzinger(k, eytzinger)));
+                verify("s-tree", expected, run("s-tree", size, distribution, keys, k -> staticTree(k, tree)));
+            }
+
+            final int[] none = new int[KEYS];
+            final long expected = run("uni-iter", size, null, none, k -> uniIterative(k, peaked));
+            verify("uni-rec", expected, run("uni-rec", size, null, none, k -> uniRecursive(k, peaked)));
+        }
+        System.out.println("# sink " + sink);
+    }
+
+    private static int[] parseSizes(String[] args) {
+        final int[] sizes = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        return sizes;
+    }
+
+    /*
+     * Postcondition: R = a sorted (descending) array of odd numbers 2 * size - 1, ..., 3, 1
+     */
+    private static int[] descending(int size) {
+        final int[] a = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = 2 * (size - i) - 1;
+        }
+        return a;
+    }
+
+    /*
+     * Postcondition: R = a strictly increasing then strictly decreasing array with its peak at size / 3
+     */
+    private static int[] bitonic(int size) {
+        final int[] a = new int[size];
+        final int peak = size / 3;
+        for (int i = 0; i < size; i++) {
+            a[i] = i <= peak ? i : 2 * peak - i;
+        }
+        return a;
+    }
+
+    private static int[] keys(int[] a, Distribution distribution) {
+        final Random random = new Random(4242);
+        final int[] keys = new int[KEYS];
+        for (int j = 0; j < KEYS; j++) {
+            final int i = random.nextInt(a.length);
+            keys[j] = switch (distribution) {
+                case HITS -> a[i];
+                case MISSES -> a[i] + 1;
+                case EDGES -> random.nextBoolean() ? a[0] + random.nextInt(4) : a[a.length - 1] - random.nextInt(4);
+            };
+        }
+        return keys;
+    }
+
+    /*
+     * One pass over the keys. Each variant has its own loop method below, so the search call inside it
+     * has a single target and is inlined; only the once-per-pass call of run is polymorphic.
+     *
+     * Postcondition: R = sum of the search results over keys
+     */
+    private interface Pass {
+        long run(int[] keys);
+    }
+
+    private static long iterative(int[] keys, int[] a) {
+        long sum = 0;
+        for (final int key : keys) {
+            sum += BinarySearch.iterativeSearch(key, a);
+        }
+        return sum;
+    }
+
+    private static long recursive(int[] keys, int[] a) {
+        long sum = 0;
+        for (final int key : keys) {
+            sum += BinarySearch.recursiveSearch(key, a);
+        }
+        return sum;
+    }
+
+    private static long eytzinger(int[] keys, DescendingIntIndex index) {
+        long sum = 0;
+        for (final int key : keys) {
+            sum += index.search(key);
+        }
+        return sum;
+    }
+
+    private static long staticTree(int[] keys, StaticSearchTree tree) {
+        long sum = 0;
+        for (final int key : keys) {
+            sum += tree.search(key);
+        }
+        return sum;
+    }
+
+    private static long uniIterative(int[] keys, int[] a) {
+        long sum = 0;
+        for (int j = 0; j < keys.length; j++) {
+            sum += BinarySearchUni.iterativeSearch(a);
+        }
+        return sum;
+    }
+
+    private static long uniRecursive(int[] keys, int[] a) {
+        long sum = 0;
+        for (int j = 0; j < keys.length; j++) {
+            sum += BinarySearchUni.recursiveSearch(a);
+        }
+        return sum;
+    }
+
+    /*
+     * Postconditions:
+     * - prints ns/op and B/op of pass over keys
+     * - R = checksum of one pass, every pass result is added to sink
+     */
+    private static long run(String name, int size, Distribution distribution, int[] keys, Pass pass) {
+        final long checksum = pass.run(keys);
+        for (int round = 1; round < WARMUP_ROUNDS; round++) {
+            sink += pass.run(keys);
+        }
+
+        final long thread = Thread.currentThread().getId();
+        final long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        final long start = System.nanoTime();
+        long sum = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            sum += pass.run(keys);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        sink += sum;
+
+        final double ops = (double) MEASURED_ROUNDS * keys.length;
+        System.out.printf("%-12s %-10d %-8s %12.2f %12.3f%n",
+                name, size, distribution == null ? "-" : distribution.name().toLowerCase(), elapsed / ops, bytes / ops);
+        if (sum != checksum * MEASURED_ROUNDS) {
+            System.out.println("# " + name + ": results differ between passes");
+        }
+        return checksum;
+    }
+
+    private static void verify(String name, long expected, long checksum) {
+        if (checksum != expected) {
+            System.out.println("# " + name + ": checksum " + checksum + " differs from the reference " + expected);
+        }
+    }
+}
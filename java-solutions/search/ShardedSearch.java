@@ -0,0 +1,170 @@
+package search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ShardedSearch {
+    /*
+     * Let: a = shards[0] ++ shards[1] ++ ... ++ shards[s - 1], n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M(x) = { i | A[i] <= x }
+     *
+     * Invariant:
+     * - forall k: shards[k].length > 0
+     * - offsets[k] = shards[0].length + ... + shards[k - 1].length, offsets[s] = n
+     * - fences[k] = shards[k][0]
+     */
+
+    // Keys per fork-join leaf task
+    private static final int THRESHOLD = 1 << 12;
+
+    private final int[][] shards;
+    private final long[] offsets;
+    private final int[] fences;
+    private final ForkJoinPool pool;
+
+    /*
+     * Preconditions:
+     * - shards != null
+     * - forall k: shards.get(k) != null
+     * - sorted(concatenation of shards)
+     * - pool != null
+     *
+     * Postconditions:
+     * - a = concatenation of shards
+     */
+    public ShardedSearch(List<int[]> shards, ForkJoinPool pool) {
+        final List<int[]> nonEmpty = new ArrayList<>();
+        for (final int[] shard : shards) {
+            if (shard.length > 0) {
+                nonEmpty.add(shard);
+            }
+        }
+
+        this.shards = nonEmpty.toArray(new int[0][]);
+        this.offsets = new long[this.shards.length + 1];
+        this.fences = new int[this.shards.length];
+        for (int k = 0; k < this.shards.length; k++) {
+            offsets[k + 1] = offsets[k] + this.shards[k].length;
+            fences[k] = this.shards[k][0];
+        }
+        this.pool = pool;
+    }
+
+    /*
+     * Preconditions:
+     * - shards != null
+     * - forall k: shards.get(k) != null
+     * - sorted(concatenation of shards)
+     *
+     * Postconditions:
+     * - a = concatenation of shards
+     */
+    public ShardedSearch(List<int[]> shards) {
+        this(shards, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     * - count > 0
+     *
+     * Postconditions:
+     * - R.a = a, split into count shards of nearly equal length
+     */
+    public static ShardedSearch split(int[] a, int count) {
+        final List<int[]> shards = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            shards.add(Arrays.copyOfRange(a, (int) ((long) a.length * k / count), (int) ((long) a.length * (k + 1) / count)));
+        }
+        return new ShardedSearch(shards);
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M(x)
+     */
+    public long search(int x) {
+        // sorted(fences) -> c = |{ k | fences[k] > x }|
+        final int c = BinarySearch.iterativeSearch(x, fences);
+        if (c == 0) {
+            // forall i: a[i] <= fences[0] <= x -> min M(x) = 0
+            return 0;
+        }
+
+        // fences[c - 1] > x && (c = s || fences[c] <= x) -> min M(x) in (offsets[c - 1], offsets[c]]
+        return offsets[c - 1] + BinarySearch.iterativeSearch(x, shards[c - 1]);
+    }
+
+    /*
+     * Let: m = xs.length
+     *
+     * Preconditions:
+     * - xs != null
+     * - out != null
+     * - out.length >= m
+     *
+     * Postconditions:
+     * - forall j=0..m-1: out'[j] = min M(xs[j])
+     */
+    public void searchAll(int[] xs, long[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("out.length = " + out.length + " < xs.length = " + xs.length);
+        }
+        pool.invoke(new SearchTask(xs, out, 0, xs.length));
+    }
+
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] xs;
+        private final long[] out;
+        private final int from;
+        private final int to;
+
+        private SearchTask(int[] xs, long[] out, int from, int to) {
+            this.xs = xs;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        /*
+         * Postcondition: forall j=from..to-1: out'[j] = min M(xs[j])
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int j = from; j < to; j++) {
+                    out[j] = search(xs[j]);
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new SearchTask(xs, out, from, mid), new SearchTask(xs, out, mid, to));
+            }
+        }
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = n
+     */
+    public long size() {
+        return offsets[shards.length];
+    }
+}
@@ -0,0 +1,132 @@
+package search;
+
+public class StaticSearchTree {
+    /*
+     * Let: n = a.length
+     *
+     * Let: A:
+     *  - A[-1] = +inf
+     *  - A[0..n-1] = a
+     *  - A[n] = -inf
+     *
+     * Let: sorted(a): forall i < j: a[i] >= a[j]
+     *
+     * Let: M = { i | A[i] <= x }
+     *
+     * Static B+-tree with B keys per node (one cache line) and B + 1 children per internal node:
+     *  - layer 0 (leaves) is a padded with Integer.MIN_VALUE to a multiple of B
+     *  - key j of internal node k is the first (largest) element of child k * (B + 1) + j + 1,
+     *    or Integer.MIN_VALUE if that child does not exist
+     *  - layer h starts at offsets[h] in tree, the root is the only node of layer height - 1
+     *
+     * Since sorted(a): min M = |{ i | a[i] > x }|, and every node is searched by counting its keys > x
+     */
+
+    private static final int B = 16;
+
+    private final int[] tree;
+    private final int[] offsets;
+    private final int n;
+
+    /*
+     * Preconditions:
+     * - a != null
+     * - sorted(a)
+     *
+     * Postconditions:
+     * - a' = a
+     */
+    public StaticSearchTree(int[] a) {
+        n = a.length;
+
+        int height = 1;
+        for (int keys = n; keys > B; keys = parentKeys(keys)) {
+            height++;
+        }
+
+        offsets = new int[height + 1];
+        int keys = n;
+        for (int h = 0; h < height; h++) {
+            offsets[h + 1] = offsets[h] + Math.max(1, blocks(keys)) * B;
+            keys = parentKeys(keys);
+        }
+
+        tree = new int[offsets[height]];
+        for (int i = 0; i < offsets[1]; i++) {
+            tree[i] = i < n ? a[i] : Integer.MIN_VALUE;
+        }
+        for (int h = 1; h < height; h++) {
+            for (int i = 0; i < offsets[h + 1] - offsets[h]; i++) {
+                // Leftmost leaf of child i / B * (B + 1) + i % B + 1
+                int child = i / B * (B + 1) + i % B + 1;
+                for (int l = h - 1; l > 0; l--) {
+                    child *= B + 1;
+                }
+                final long first = (long) child * B;
+                tree[offsets[h] + i] = first < n ? a[(int) first] : Integer.MIN_VALUE;
+            }
+        }
+    }
+
+    /*
+     * Precondition: keys >= 0
+     *
+     * Postcondition: R = number of B-key nodes needed to hold keys
+     */
+    private static int blocks(int keys) {
+        return (keys + B - 1) / B;
+    }
+
+    /*
+     * Precondition: keys >= 0
+     *
+     * Postcondition: R = number of keys in the layer above a layer of keys keys
+     */
+    private static int parentKeys(int keys) {
+        return (blocks(keys) + B) / (B + 1) * B;
+    }
+
+    /*
+     * Preconditions:
+     * - 0 <= base
+     * - base + B <= tree.length
+     *
+     * Postcondition:
+     * - R = |{ j=0..B-1 | tree[base + j] > x }|
+     */
+    private int countGreater(int base, int x) {
+        // Fixed trip count and no branches in the body, so the loop is unrolled and can be vectorized
+        int count = 0;
+        for (int j = 0; j < B; j++) {
+            count += (int) (((long) x - tree[base + j]) >>> 63);
+        }
+        return count;
+    }
+
+    /*
+     * Preconditions:
+     * - true
+     *
+     * Postcondition:
+     * - R = min M
+     * - R = BinarySearch.iterativeSearch(x, a)
+     */
+    public int search(int x) {
+        // Invariant: the answer lies in the subtree of node k of layer h, or is the first element after it
+        int k = 0;
+        for (int h = offsets.length - 2; h > 0; h--) {
+            // Keys of node k are sorted, so the keys > x are a prefix; children before that prefix end hold only elements > x
+            k = k * (B + 1) + countGreater(offsets[h] + k * B, x);
+        }
+        return k * B + countGreater(k * B, x);
+    }
+
+    /*
+     * Precondition: true
+     *
+     * Postcondition: R = n
+     */
+    public int size() {
+        return n;
+    }
+}